@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+
+/**
+ * Дополнение репозитория бронирований для пакетной записи через JDBC.
+ */
+public interface BookingBatchRepository {
+    /**
+     * Вставляет бронирования одним JDBC-пакетом и проставляет им сгенерированные идентификаторы.
+     * Вставленные бронирования не попадают в контекст персистентности.
+     *
+     * @param bookings новые бронирования без идентификаторов
+     */
+    void insertAll(List<Booking> bookings);
+}
@@ -1,9 +1,16 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 
 import java.util.List;
 
@@ -21,6 +28,9 @@ public class BookingController {
     // Имя заголовка для передачи идентификатора пользователя
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
+    // Имя заголовка с курсором следующей страницы
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     /**
      * Создает новое бронирование с валидацией группы Create
      */
@@ -30,6 +40,15 @@ public class BookingController {
         return bookingService.create(bookingDto, bookerId);
     }
 
+    /**
+     * Создает пакет бронирований, результат возвращается по каждому элементу
+     */
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createBatch(@RequestBody List<BookingDto> bookingDtos,
+                                                   @RequestHeader(USER_ID_HEADER) Long bookerId) {
+        return bookingService.createBatch(bookingDtos, bookerId);
+    }
+
     /**
      * Подтверждает или отклоняет бронирование
      */
@@ -40,6 +59,15 @@ public class BookingController {
         return bookingService.approve(bookingId, ownerId, approved);
     }
 
+    /**
+     * Подтверждает или отклоняет набор бронирований, результат возвращается по каждому решению
+     */
+    @PatchMapping("/owner/decisions")
+    public List<BookingBatchResultDto> decide(@RequestBody List<BookingDecisionDto> decisions,
+                                              @RequestHeader(USER_ID_HEADER) Long ownerId) {
+        return bookingService.decide(decisions, ownerId);
+    }
+
     /**
      * Возвращает информацию о бронировании
      */
@@ -50,21 +78,55 @@ public class BookingController {
     }
 
     /**
-     * Возвращает бронирования пользователя с фильтрацией по состоянию
+     * Возвращает страницу бронирований пользователя с фильтрацией по состоянию.
+     * Курсор следующей страницы передается в заголовке X-Next-Cursor.
+     * Без курсора и размера страницы, как и раньше, возвращаются все бронирования.
      */
     @GetMapping
-    public List<BookingDto> getByBookerId(@RequestHeader(USER_ID_HEADER) Long bookerId,
-                                          @RequestParam(defaultValue = "ALL") String state) {
-        return bookingService.getByBookerId(bookerId, state);
+    public ResponseEntity<List<BookingDto>> getByBookerId(@RequestHeader(USER_ID_HEADER) Long bookerId,
+                                                          @RequestParam(defaultValue = "ALL") String state,
+                                                          @RequestParam(required = false) String after,
+                                                          @RequestParam(required = false) Integer limit) {
+        return toResponse(bookingService.getByBookerId(bookerId, state, after, limit));
     }
 
     /**
-     * Возвращает бронирования вещей владельца с фильтрацией по состоянию
+     * Возвращает страницу бронирований вещей владельца с фильтрацией по состоянию.
+     * Курсор следующей страницы передается в заголовке X-Next-Cursor.
+     * Без курсора и размера страницы, как и раньше, возвращаются все бронирования.
      */
     @GetMapping("/owner")
-    public List<BookingDto> getByOwnerId(@RequestHeader(USER_ID_HEADER) Long ownerId,
-                                         @RequestParam(defaultValue = "ALL") String state) {
-        return bookingService.getByOwnerId(ownerId, state);
+    public ResponseEntity<List<BookingDto>> getByOwnerId(@RequestHeader(USER_ID_HEADER) Long ownerId,
+                                                         @RequestParam(defaultValue = "ALL") String state,
+                                                         @RequestParam(required = false) String after,
+                                                         @RequestParam(required = false) Integer limit) {
+        return toResponse(bookingService.getByOwnerId(ownerId, state, after, limit));
+    }
+
+    /**
+     * Возвращает количество бронирований пользователя по состояниям
+     */
+    @GetMapping("/summary")
+    public BookingSummaryDto getSummaryByBookerId(@RequestHeader(USER_ID_HEADER) Long bookerId) {
+        return bookingService.getSummaryByBookerId(bookerId);
+    }
+
+    /**
+     * Возвращает количество бронирований вещей владельца по состояниям
+     */
+    @GetMapping("/owner/summary")
+    public BookingSummaryDto getSummaryByOwnerId(@RequestHeader(USER_ID_HEADER) Long ownerId) {
+        return bookingService.getSummaryByOwnerId(ownerId);
+    }
+
+    /**
+     * Выгружает всю историю бронирований вещей владельца в формате NDJSON
+     */
+    @GetMapping(path = "/owner/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportByOwnerId(@RequestHeader(USER_ID_HEADER) Long ownerId) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(bookingService.exportByOwnerId(ownerId));
     }
 
     /**
@@ -85,4 +147,15 @@ public class BookingController {
                              @RequestHeader(USER_ID_HEADER) Long userId) {
         return bookingService.cancel(bookingId, userId);
     }
+
+    /**
+     * Возвращает бронирования страницы в теле ответа, а курсор следующей страницы в заголовке.
+     */
+    private ResponseEntity<List<BookingDto>> toResponse(BookingPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
+    }
 }
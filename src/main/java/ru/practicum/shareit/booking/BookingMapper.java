@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemMapper;
@@ -13,7 +14,9 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.UserMapper;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserIdentityCache;
+
+import java.util.Collections;
 
 /**
  * Маппер для преобразования между Entity и DTO объектов бронирования.
@@ -22,7 +25,7 @@ import ru.practicum.shareit.user.UserRepository;
 @RequiredArgsConstructor
 public class BookingMapper {
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
     private final ItemMapper itemMapper;
     private final UserMapper userMapper;
 
@@ -33,9 +36,15 @@ public class BookingMapper {
         Item item = itemRepository.findById(bookingDto.getItemId())
                 .orElseThrow(() -> new NotFoundException("Item not found with id: " + bookingDto.getItemId()));
 
-        User booker = userRepository.findById(bookerId)
-                .orElseThrow(() -> new NotFoundException("User not found with id: " + bookerId));
+        User booker = userIdentityCache.getReference(bookerId);
+
+        return toBooking(bookingDto, item, booker);
+    }
 
+    /**
+     * Преобразует DTO бронирования в Entity с уже загруженными вещью и автором бронирования.
+     */
+    public Booking toBooking(BookingDto bookingDto, Item item, User booker) {
         return Booking.builder()
                 .id(bookingDto.getId())
                 .start(bookingDto.getStart())
@@ -69,6 +78,34 @@ public class BookingMapper {
                 .build();
     }
 
+    /**
+     * Преобразует проекцию бронирования в DTO с вложенными вещью и автором бронирования.
+     * Используется в списочных запросах, где сущности не загружаются.
+     */
+    public BookingDto toBookingDto(BookingView view) {
+        ItemDto itemDto = ItemDto.builder()
+                .id(view.getItemId())
+                .name(view.getItemName())
+                .description(view.getItemDescription())
+                .available(view.getItemAvailable())
+                .ownerId(view.getItemOwnerId())
+                .requestId(view.getItemRequestId())
+                .comments(Collections.emptyList())
+                .build();
+        UserDto bookerDto = new UserDto(view.getBookerId(), view.getBookerName(), view.getBookerEmail());
+
+        return BookingDto.builder()
+                .id(view.getId())
+                .start(view.getStart())
+                .end(view.getEnd())
+                .status(view.getStatus())
+                .bookerId(view.getBookerId())
+                .itemId(view.getItemId())
+                .item(itemDto)
+                .booker(bookerDto)
+                .build();
+    }
+
     /**
      * Преобразует Entity бронирования в краткий DTO.
      */
@@ -1,78 +1,196 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.dto.BookingPointerView;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.index.BookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Интерфейс репозитория для работы с бронированиями.
  */
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingBatchRepository {
+
+    // Списочные запросы постраничные: страница начинается после курсора (start, id)
+    // и содержит не более limit строк, отсортированных по (start, id) от новых к старым.
+    // Строки читаются сразу в проекцию BookingView, без загрузки сущностей.
+    // Условия состояний общие для списков и сводки по состояниям, параметр :now - текущий момент.
+    String STATE_CURRENT = "b.start <= :now AND b.end >= :now";
+    String STATE_PAST_BOOKER = "b.end < :now";
+    String STATE_PAST_OWNER = "b.end <= :now";
+    String STATE_FUTURE = "b.start >= :now";
+
+    String VIEW_SELECT = "SELECT new ru.practicum.shareit.booking.dto.BookingView(" +
+            "b.id, b.start, b.end, b.status, i.id, i.name, i.description, i.available, i.owner.id, i.request.id, " +
+            "u.id, u.name, u.email) FROM Booking b JOIN b.item i JOIN b.booker u ";
 
     /**
-     * Находит все бронирования определенного пользователя, отсортированные по дате начала.
+     * Находит бронирования определенного пользователя, отсортированные по дате начала.
      */
-    List<Booking> findByBookerIdOrderByStartDesc(Long bookerId);
+    @Query(VIEW_SELECT + "WHERE b.booker.id = :bookerId " +
+            "AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<BookingView> findByBookerIdOrderByStartDesc(
+            @Param("bookerId") Long bookerId, @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Limit limit);
 
     /**
      * Находит бронирования пользователя с определенным статусом, отсортированные по дате начала.
      */
-    List<Booking> findByBookerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus status);
+    @Query(VIEW_SELECT + "WHERE b.booker.id = :bookerId AND b.status = :status " +
+            "AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<BookingView> findByBookerIdAndStatusOrderByStartDesc(
+            @Param("bookerId") Long bookerId, @Param("status") BookingStatus status,
+            @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Limit limit);
 
     /**
      * Находит текущие бронирования пользователя.
      */
-    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker WHERE b.booker.id = :bookerId AND b.start <= :start AND b.end >= :start ORDER BY b.start DESC")
-    List<Booking> findByBookerIdAndStartBeforeOrderByStartDesc(
-            @Param("bookerId") Long bookerId, @Param("start") LocalDateTime start);
+    @Query(VIEW_SELECT + "WHERE b.booker.id = :bookerId AND " + STATE_CURRENT + " " +
+            "AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<BookingView> findByBookerIdAndStartBeforeOrderByStartDesc(
+            @Param("bookerId") Long bookerId, @Param("now") LocalDateTime now,
+            @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Limit limit);
 
     /**
      * Находит завершенные бронирования пользователя.
      */
-    List<Booking> findByBookerIdAndEndBeforeOrderByStartDesc(Long bookerId, LocalDateTime end);
+    @Query(VIEW_SELECT + "WHERE b.booker.id = :bookerId AND " + STATE_PAST_BOOKER + " " +
+            "AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<BookingView> findByBookerIdAndEndBeforeOrderByStartDesc(
+            @Param("bookerId") Long bookerId, @Param("now") LocalDateTime now,
+            @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Limit limit);
 
     /**
      * Находит будущие бронирования пользователя.
      */
-    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker WHERE b.booker.id = :bookerId AND b.start >= :start ORDER BY b.start DESC")
-    List<Booking> findByBookerIdAndStartAfterOrderByStartDesc(@Param("bookerId") Long bookerId, @Param("start") LocalDateTime start);
+    @Query(VIEW_SELECT + "WHERE b.booker.id = :bookerId AND " + STATE_FUTURE + " " +
+            "AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<BookingView> findByBookerIdAndStartAfterOrderByStartDesc(
+            @Param("bookerId") Long bookerId, @Param("now") LocalDateTime now,
+            @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Limit limit);
 
     /**
-     * Находит все бронирования вещей владельца, отсортированные по дате начала.
+     * Находит бронирования вещей владельца, отсортированные по дате начала.
      */
-    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker WHERE b.item.owner.id = :ownerId ORDER BY b.start DESC")
-    List<Booking> findByItemOwnerIdOrderByStartDesc(@Param("ownerId") Long ownerId);
+    @Query(VIEW_SELECT + "WHERE i.owner.id = :ownerId " +
+            "AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<BookingView> findByItemOwnerIdOrderByStartDesc(
+            @Param("ownerId") Long ownerId, @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Limit limit);
 
     /**
      * Находит бронирования вещей владельца с определенным статусом.
      */
-    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker WHERE b.item.owner.id = :ownerId AND b.status = :status ORDER BY b.start DESC")
-    List<Booking> findByItemOwnerIdAndStatusOrderByStartDesc(@Param("ownerId") Long ownerId, @Param("status") BookingStatus status);
+    @Query(VIEW_SELECT + "WHERE i.owner.id = :ownerId AND b.status = :status " +
+            "AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<BookingView> findByItemOwnerIdAndStatusOrderByStartDesc(
+            @Param("ownerId") Long ownerId, @Param("status") BookingStatus status,
+            @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Limit limit);
 
     /**
      * Находит текущие бронирования вещей владельца.
      */
-    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker WHERE b.item.owner.id = :ownerId AND b.start <= :start AND b.end >= :start ORDER BY b.start DESC")
-    List<Booking> findByItemOwnerIdAndStartBeforeOrderByStartDesc(
-            @Param("ownerId") Long ownerId, @Param("start") LocalDateTime start);
+    @Query(VIEW_SELECT + "WHERE i.owner.id = :ownerId AND " + STATE_CURRENT + " " +
+            "AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<BookingView> findByItemOwnerIdAndStartBeforeOrderByStartDesc(
+            @Param("ownerId") Long ownerId, @Param("now") LocalDateTime now,
+            @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Limit limit);
 
     /**
      * Находит завершенные бронирования вещей владельца.
      */
-    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker WHERE b.item.owner.id = :ownerId AND b.end <= :end ORDER BY b.start DESC")
-    List<Booking> findByItemOwnerIdAndEndBeforeOrderByStartDesc(@Param("ownerId") Long ownerId, @Param("end") LocalDateTime end);
+    @Query(VIEW_SELECT + "WHERE i.owner.id = :ownerId AND " + STATE_PAST_OWNER + " " +
+            "AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<BookingView> findByItemOwnerIdAndEndBeforeOrderByStartDesc(
+            @Param("ownerId") Long ownerId, @Param("now") LocalDateTime now,
+            @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Limit limit);
 
     /**
      * Находит будущие бронирования вещей владельца.
      */
-    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker WHERE b.item.owner.id = :ownerId AND b.start >= :start ORDER BY b.start DESC")
-    List<Booking> findByItemOwnerIdAndStartAfterOrderByStartDesc(@Param("ownerId") Long ownerId, @Param("start") LocalDateTime start);
+    @Query(VIEW_SELECT + "WHERE i.owner.id = :ownerId AND " + STATE_FUTURE + " " +
+            "AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<BookingView> findByItemOwnerIdAndStartAfterOrderByStartDesc(
+            @Param("ownerId") Long ownerId, @Param("now") LocalDateTime now,
+            @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Limit limit);
+
+    /**
+     * Считает бронирования пользователя по всем состояниям одним агрегирующим запросом.
+     */
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingSummaryDto(COUNT(b), " +
+            "COALESCE(SUM(CASE WHEN " + STATE_CURRENT + " THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN " + STATE_PAST_BOOKER + " THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN " + STATE_FUTURE + " THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN b.status = 'WAITING' THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN b.status = 'REJECTED' THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN b.status = 'APPROVED' THEN 1 ELSE 0 END), 0)) " +
+            "FROM Booking b WHERE b.booker.id = :bookerId")
+    BookingSummaryDto countByBookerIdGroupByState(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now);
+
+    /**
+     * Считает бронирования вещей владельца по всем состояниям одним агрегирующим запросом.
+     */
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingSummaryDto(COUNT(b), " +
+            "COALESCE(SUM(CASE WHEN " + STATE_CURRENT + " THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN " + STATE_PAST_OWNER + " THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN " + STATE_FUTURE + " THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN b.status = 'WAITING' THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN b.status = 'REJECTED' THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN b.status = 'APPROVED' THEN 1 ELSE 0 END), 0)) " +
+            "FROM Booking b WHERE b.item.owner.id = :ownerId")
+    BookingSummaryDto countByItemOwnerIdGroupByState(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now);
+
+    /**
+     * Последовательно читает все бронирования вещей владельца для выгрузки.
+     * Строки забираются из базы порциями, поток должен читаться внутри транзакции и быть закрыт.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Booking b JOIN FETCH b.booker WHERE b.item.owner.id = :ownerId ORDER BY b.start DESC, b.id DESC")
+    Stream<Booking> streamByItemOwnerId(@Param("ownerId") Long ownerId);
+
+    /**
+     * Находит бронирования из списка, принадлежащие вещам указанного владельца.
+     */
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker WHERE b.id IN :ids AND b.item.owner.id = :ownerId")
+    List<Booking> findByIdInAndItemOwnerId(@Param("ids") Collection<Long> ids, @Param("ownerId") Long ownerId);
+
+    /**
+     * Меняет статус ожидающих бронирований одним запросом.
+     * После выполнения контекст персистентности очищается. Бронирования не хранятся в кэше второго уровня,
+     * поэтому запрос сбрасывает только кэшированные результаты запросов по таблице bookings,
+     * а регионы сущностей (в том числе "items") не затрагивает.
+     *
+     * @return число обновленных бронирований
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status WHERE b.id IN :ids AND b.status = 'WAITING'")
+    int updateWaitingStatus(@Param("ids") Collection<Long> ids, @Param("status") BookingStatus status);
 
     /**
      * Находит пересекающиеся бронирования для указанной вещи.
@@ -88,6 +206,32 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
                                      @Param("end") LocalDateTime end,
                                      @Param("excludeBookingId") Long excludeBookingId);
 
+    /**
+     * Находит интервалы подтвержденных бронирований, которые завершаются после указанного момента.
+     * Используется для построения индекса занятости вещей.
+     */
+    @Query("SELECT new ru.practicum.shareit.booking.index.BookingInterval(b.id, b.item.id, b.start, b.end) " +
+            "FROM Booking b WHERE b.status = 'APPROVED' AND b.end >= :from")
+    List<BookingInterval> findApprovedIntervalsEndingAfter(@Param("from") LocalDateTime from);
+
+    /**
+     * Находит интервалы всех подтвержденных бронирований вещи в порядке начала.
+     * Используется для построения кэша занятости вещи.
+     */
+    @Query("SELECT new ru.practicum.shareit.booking.index.BookingInterval(b.id, b.item.id, b.start, b.end) " +
+            "FROM Booking b WHERE b.item.id = :itemId AND b.status = 'APPROVED' ORDER BY b.start, b.id")
+    List<BookingInterval> findApprovedIntervalsByItemId(@Param("itemId") Long itemId);
+
+    /**
+     * Находит интервалы подтвержденных бронирований вещей, пересекающие период (границы включаются).
+     * Используется для проверки пересечений при подтверждении набора бронирований.
+     */
+    @Query("SELECT new ru.practicum.shareit.booking.index.BookingInterval(b.id, b.item.id, b.start, b.end) " +
+            "FROM Booking b WHERE b.item.id IN :itemIds AND b.status = 'APPROVED' AND b.start <= :to AND b.end >= :from")
+    List<BookingInterval> findApprovedIntervalsByItemIdIn(@Param("itemIds") Collection<Long> itemIds,
+                                                          @Param("from") LocalDateTime from,
+                                                          @Param("to") LocalDateTime to);
+
     /**
      * Находит последнее завершенное бронирование вещи пользователем.
      * Используется для проверки возможности оставить отзыв.
@@ -116,7 +260,19 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findCurrentBookingsByItemId(@Param("itemId") Long itemId, @Param("currentTime") LocalDateTime currentTime);
 
 
-    List<Booking> findByItemIdInAndStatusOrderByStartAsc(List<Long> itemIds, BookingStatus status);
+    /**
+     * Находит для каждой вещи последнее начавшееся (по дате окончания) и ближайшее будущее (по дате начала)
+     * подтвержденные бронирования, не больше двух строк на вещь независимо от истории бронирований.
+     */
+    @Query(value = "SELECT ranked.id AS id, ranked.item_id AS itemId, ranked.booker_id AS bookerId, " +
+            "ranked.start_date AS startDate, ranked.end_date AS endDate " +
+            "FROM (SELECT b.id, b.start_date, b.end_date, b.item_id, b.booker_id, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id, b.start_date > :now " +
+            "ORDER BY CASE WHEN b.start_date > :now THEN b.start_date END, b.end_date DESC) AS rn " +
+            "FROM bookings b WHERE b.item_id IN (:itemIds) AND b.status = 'APPROVED' AND b.start_date <> :now) ranked " +
+            "WHERE ranked.rn = 1", nativeQuery = true)
+    List<BookingPointerView> findLastAndNextApprovedByItemIdIn(@Param("itemIds") Collection<Long> itemIds,
+                                                               @Param("now") LocalDateTime now);
 
 
 }
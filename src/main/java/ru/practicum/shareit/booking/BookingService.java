@@ -1,11 +1,17 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.exception.NotFoundException;
 
 import java.util.List;
 
+
 /**
  * Интерфейс сервиса для работы с бронированиями.
  */
@@ -21,6 +27,18 @@ public interface BookingService {
      */
     BookingDto create(BookingDto bookingDto, Long bookerId);
 
+    /**
+     * Создает пакет бронирований от имени одного пользователя.
+     * Каждый элемент проверяется отдельно: ошибка одного элемента не отменяет остальные.
+     *
+     * @param bookingDtos DTO создаваемых бронирований.
+     * @param bookerId    идентификатор пользователя, который бронирует.
+     * @return результаты по каждому элементу в порядке исходного пакета.
+     * @throws NotFoundException   если пользователь не найден.
+     * @throws ValidationException если пакет пуст или слишком велик.
+     */
+    List<BookingBatchResultDto> createBatch(List<BookingDto> bookingDtos, Long bookerId);
+
     /**
      * Подтверждает или отклоняет бронирование владельцем вещи.
      *
@@ -32,6 +50,18 @@ public interface BookingService {
      */
     BookingDto approve(Long bookingId, Long ownerId, boolean approved);
 
+    /**
+     * Подтверждает или отклоняет набор бронирований владельцем вещей.
+     * Принадлежность проверяется одним запросом, статусы меняются пакетным обновлением.
+     *
+     * @param decisions решения по бронированиям.
+     * @param ownerId   идентификатор владельца вещей.
+     * @return результаты по каждому решению в порядке исходного списка.
+     * @throws ValidationException если список пуст или слишком велик,
+     *                             либо бронирования изменились параллельно.
+     */
+    List<BookingBatchResultDto> decide(List<BookingDecisionDto> decisions, Long ownerId);
+
     /**
      * Находит бронирование по идентификатору.
      *
@@ -43,22 +73,58 @@ public interface BookingService {
     BookingDto getById(Long bookingId, Long userId);
 
     /**
-     * Возвращает все бронирования пользователя с фильтрацией по статусу.
+     * Возвращает страницу бронирований пользователя с фильтрацией по статусу.
      *
      * @param bookerId идентификатор пользователя.
      * @param state    состояние бронирования.
-     * @return список бронирований в формате DTO.
+     * @param after    токен курсора предыдущей страницы (null для первой страницы).
+     * @param limit    максимальный размер страницы (null — все бронирования, если курсор не передан,
+     *                 иначе размер страницы по умолчанию).
+     * @return страница бронирований и курсор следующей страницы.
+     * @throws ValidationException если курсор поврежден или размер страницы некорректен.
      */
-    List<BookingDto> getByBookerId(Long bookerId, String state);
+    BookingPage getByBookerId(Long bookerId, String state, String after, Integer limit);
 
     /**
-     * Возвращает все бронирования вещей владельца с фильтрацией по статусу.
+     * Возвращает страницу бронирований вещей владельца с фильтрацией по статусу.
      *
      * @param ownerId идентификатор владельца вещей.
      * @param state   состояние бронирования.
-     * @return список бронирований в формате DTO.
+     * @param after   токен курсора предыдущей страницы (null для первой страницы).
+     * @param limit   максимальный размер страницы (null — все бронирования, если курсор не передан,
+     *                иначе размер страницы по умолчанию).
+     * @return страница бронирований и курсор следующей страницы.
+     * @throws ValidationException если курсор поврежден или размер страницы некорректен.
+     */
+    BookingPage getByOwnerId(Long ownerId, String state, String after, Integer limit);
+
+    /**
+     * Возвращает количество бронирований пользователя по каждому состоянию.
+     *
+     * @param bookerId идентификатор пользователя.
+     * @return количество бронирований по состояниям.
+     * @throws NotFoundException если пользователь не найден.
+     */
+    BookingSummaryDto getSummaryByBookerId(Long bookerId);
+
+    /**
+     * Возвращает количество бронирований вещей владельца по каждому состоянию.
+     *
+     * @param ownerId идентификатор владельца вещей.
+     * @return количество бронирований по состояниям.
+     * @throws NotFoundException если пользователь не найден.
+     */
+    BookingSummaryDto getSummaryByOwnerId(Long ownerId);
+
+    /**
+     * Готовит потоковую выгрузку всех бронирований вещей владельца в формате NDJSON.
+     * Строки читаются из базы и записываются в ответ по одной, без загрузки истории в память.
+     *
+     * @param ownerId идентификатор владельца вещей.
+     * @return тело ответа, которое пишет по одному бронированию в краткой форме на строку.
+     * @throws NotFoundException если пользователь не найден.
      */
-    List<BookingDto> getByOwnerId(Long ownerId, String state);
+    StreamingResponseBody exportByOwnerId(Long ownerId);
 
     /**
      * Обновляет данные бронирования.
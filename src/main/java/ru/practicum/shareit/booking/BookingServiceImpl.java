@@ -1,23 +1,60 @@
 package ru.practicum.shareit.booking;
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.index.BookingInterval;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.strategy.BookingStrategyContext;
+import ru.practicum.shareit.common.KeysetCursor;
 import ru.practicum.shareit.exception.AccessDeniedException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemBookingPointers;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserIdentityCache;
+import ru.practicum.shareit.user.model.User;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Реализация сервиса бронирований.
@@ -25,11 +62,29 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    // SQLSTATE exclusion_violation в PostgreSQL
+    private static final String EXCLUSION_VIOLATION_SQL_STATE = "23P01";
+    private static final String ALREADY_BOOKED_MESSAGE = "Item is already booked for this period";
+    // Максимальный размер страницы списка бронирований
+    private static final int MAX_PAGE_SIZE = 1000;
+    // Размер страницы, если передан только курсор
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    // Через сколько выгруженных строк очищать контекст персистентности
+    private static final int EXPORT_CLEAR_INTERVAL = 500;
+    // Максимальное число бронирований в одном пакете
+    private static final int MAX_BATCH_SIZE = 500;
+
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
     private final BookingMapper bookingMapper;
     private final BookingStrategyContext strategyContext;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemBookingPointers itemBookingPointers;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
 
     /**
      * Создает бронирование с проверками:
@@ -38,8 +93,7 @@ public class BookingServiceImpl implements BookingService {
     @Transactional
     public BookingDto create(BookingDto bookingDto, Long bookerId) {
         // Проверяем существование пользователя
-        userRepository.findById(bookerId)
-                .orElseThrow(() -> new NotFoundException("User not found with id: " + bookerId));
+        userIdentityCache.checkExists(bookerId);
 
         Booking booking = bookingMapper.toBooking(bookingDto, bookerId);
 
@@ -48,6 +102,88 @@ public class BookingServiceImpl implements BookingService {
         return bookingMapper.toBookingDto(bookingRepository.save(booking));
     }
 
+    /**
+     * Создает пакет бронирований: вещи и автор загружаются одним запросом каждый,
+     * пересечения с подтвержденными бронированиями проверяются по индексу занятости,
+     * вставка выполняется одним JDBC-пакетом.
+     * Как и при создании по одному, ожидающие бронирования одной вещи внутри пакета могут пересекаться:
+     * пересечение проверяется только при подтверждении.
+     */
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> createBatch(List<BookingDto> bookingDtos, Long bookerId) {
+        if (bookingDtos.isEmpty() || bookingDtos.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Batch size must be between 1 and " + MAX_BATCH_SIZE);
+        }
+
+        User booker = userIdentityCache.getReference(bookerId);
+
+        Set<Long> itemIds = bookingDtos.stream()
+                .filter(Objects::nonNull)
+                .map(BookingDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Item> itemsById = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        BookingBatchResultDto[] results = new BookingBatchResultDto[bookingDtos.size()];
+        List<Booking> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            BookingDto bookingDto = bookingDtos.get(i);
+            try {
+                Booking booking = toNewBooking(bookingDto, itemsById, booker);
+                validateBooking(booking, bookerId);
+                accepted.add(booking);
+                acceptedIndexes.add(i);
+            } catch (NotFoundException | ValidationException e) {
+                results[i] = BookingBatchResultDto.builder().index(i).error(e.getMessage()).build();
+            }
+        }
+
+        bookingRepository.insertAll(accepted);
+
+        for (int i = 0; i < accepted.size(); i++) {
+            int index = acceptedIndexes.get(i);
+            results[index] = BookingBatchResultDto.builder()
+                    .index(index)
+                    .booking(bookingMapper.toBookingDto(accepted.get(i)))
+                    .build();
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Проверяет элемент пакета и собирает по нему новое бронирование в статусе WAITING.
+     */
+    private Booking toNewBooking(BookingDto bookingDto, Map<Long, Item> itemsById, User booker) {
+        if (bookingDto == null) {
+            throw new ValidationException("Booking must not be null");
+        }
+        Set<ConstraintViolation<BookingDto>> violations = validator.validate(bookingDto, BookingDto.Create.class);
+        if (!violations.isEmpty()) {
+            throw new ValidationException(violations.iterator().next().getMessage());
+        }
+
+        Item item = itemsById.get(bookingDto.getItemId());
+        if (item == null) {
+            throw new NotFoundException("Item not found with id: " + bookingDto.getItemId());
+        }
+
+        Booking booking = bookingMapper.toBooking(bookingDto, item, booker);
+        booking.setId(null);
+        booking.setStatus(BookingStatus.WAITING);
+        return booking;
+    }
+
+    /**
+     * Проверяет пересечение периодов двух бронирований (границы включаются).
+     */
+    private boolean overlaps(Booking first, Booking second) {
+        return !first.getStart().isAfter(second.getEnd()) && !second.getStart().isAfter(first.getEnd());
+    }
+
     /**
      * Подтверждает или отклоняет бронирование владельцем вещи
      */
@@ -66,10 +202,172 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Booking already processed");
         }
 
+        // Быстрая проверка по индексу занятости, окончательно пересечение проверяет ограничение в базе данных
+        if (approved && bookingIntervalIndex.hasOverlap(
+                booking.getItem().getId(), booking.getStart(), booking.getEnd(), booking.getId())) {
+            throw new ValidationException(ALREADY_BOOKED_MESSAGE);
+        }
+
         // Устанавливаем новый статус
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
 
-        return bookingMapper.toBookingDto(bookingRepository.save(booking));
+        Booking savedBooking = saveAndCheckOverlap(booking);
+        bookingIntervalIndex.refreshAfterCommit(savedBooking);
+        if (approved) {
+            itemBookingPointers.refreshAfterCommit(List.of(savedBooking.getItem().getId()));
+        }
+        return bookingMapper.toBookingDto(savedBooking);
+    }
+
+    /**
+     * Подтверждает или отклоняет набор бронирований:
+     * бронирования владельца загружаются одним запросом, подтверждаемые проверяются на пересечение
+     * с подтвержденными бронированиями из базы и между собой до обновления, поэтому конфликт попадает
+     * в результат своего решения. Статусы меняются пакетными обновлениями; пересечение с бронированием,
+     * подтвержденным параллельно после проверки, отклоняет набор через ограничение в базе данных.
+     */
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> decide(List<BookingDecisionDto> decisions, Long ownerId) {
+        if (decisions.isEmpty() || decisions.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Decisions count must be between 1 and " + MAX_BATCH_SIZE);
+        }
+
+        Set<Long> bookingIds = decisions.stream()
+                .filter(Objects::nonNull)
+                .map(BookingDecisionDto::getBookingId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Booking> bookingsById = bookingRepository.findByIdInAndItemOwnerId(bookingIds, ownerId).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        Map<Long, List<BookingInterval>> approvedIntervalsByItemId = findApprovedIntervals(decisions, bookingsById);
+
+        BookingBatchResultDto[] results = new BookingBatchResultDto[decisions.size()];
+        Map<Integer, Booking> accepted = new LinkedHashMap<>();
+        Map<Long, List<Booking>> approvedByItemId = new HashMap<>();
+        Set<Long> decided = new HashSet<>();
+
+        for (int i = 0; i < decisions.size(); i++) {
+            BookingDecisionDto decision = decisions.get(i);
+            try {
+                Booking booking = toDecidedBooking(decision, bookingsById, decided);
+
+                if (decision.getApproved()) {
+                    // Пересечение с уже подтвержденными бронированиями и с подтверждаемыми в этом же наборе
+                    List<Booking> sameItem = approvedByItemId.computeIfAbsent(booking.getItem().getId(), id -> new ArrayList<>());
+                    List<BookingInterval> approvedIntervals =
+                            approvedIntervalsByItemId.getOrDefault(booking.getItem().getId(), List.of());
+                    if (approvedIntervals.stream().anyMatch(interval -> overlaps(interval, booking)) ||
+                            sameItem.stream().anyMatch(other -> overlaps(other, booking))) {
+                        throw new ValidationException(ALREADY_BOOKED_MESSAGE);
+                    }
+                    sameItem.add(booking);
+                }
+
+                accepted.put(i, booking);
+            } catch (NotFoundException | ValidationException e) {
+                results[i] = BookingBatchResultDto.builder().index(i).error(e.getMessage()).build();
+            }
+        }
+
+        applyDecisions(accepted, decisions);
+        itemBookingPointers.refreshAfterCommit(approvedByItemId.keySet());
+
+        accepted.forEach((index, booking) -> {
+            bookingIntervalIndex.refreshAfterCommit(booking);
+            results[index] = BookingBatchResultDto.builder()
+                    .index(index)
+                    .booking(bookingMapper.toBookingDto(booking))
+                    .build();
+        });
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Загружает подтвержденные бронирования вещей подтверждаемых бронирований,
+     * пересекающие общий период подтверждаемых. Строки не блокируются: это предварительная проверка,
+     * а гонки с параллельными подтверждениями разрешает ограничение в базе данных.
+     */
+    private Map<Long, List<BookingInterval>> findApprovedIntervals(List<BookingDecisionDto> decisions,
+                                                                   Map<Long, Booking> bookingsById) {
+        List<Booking> approving = decisions.stream()
+                .filter(decision -> decision != null && Boolean.TRUE.equals(decision.getApproved()))
+                .map(decision -> bookingsById.get(decision.getBookingId()))
+                .filter(Objects::nonNull)
+                .toList();
+        if (approving.isEmpty()) {
+            return Map.of();
+        }
+
+        Set<Long> itemIds = approving.stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toSet());
+        LocalDateTime from = approving.stream().map(Booking::getStart).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime to = approving.stream().map(Booking::getEnd).max(Comparator.naturalOrder()).orElseThrow();
+
+        return bookingRepository.findApprovedIntervalsByItemIdIn(itemIds, from, to).stream()
+                .collect(Collectors.groupingBy(BookingInterval::getItemId));
+    }
+
+    /**
+     * Проверяет пересечение подтвержденного бронирования с бронированием (границы включаются).
+     */
+    private boolean overlaps(BookingInterval interval, Booking booking) {
+        return !interval.getBookingId().equals(booking.getId()) &&
+                !interval.getStart().isAfter(booking.getEnd()) && !booking.getStart().isAfter(interval.getEnd());
+    }
+
+    /**
+     * Проверяет решение и возвращает бронирование, к которому оно относится.
+     */
+    private Booking toDecidedBooking(BookingDecisionDto decision, Map<Long, Booking> bookingsById, Set<Long> decided) {
+        if (decision == null) {
+            throw new ValidationException("Decision must not be null");
+        }
+        Set<ConstraintViolation<BookingDecisionDto>> violations = validator.validate(decision);
+        if (!violations.isEmpty()) {
+            throw new ValidationException(violations.iterator().next().getMessage());
+        }
+
+        Booking booking = bookingsById.get(decision.getBookingId());
+        if (booking == null) {
+            throw new NotFoundException("Booking not found or user is not the owner of the item, id: " +
+                    decision.getBookingId());
+        }
+        if (!decided.add(booking.getId())) {
+            throw new ValidationException("Duplicate decision for booking with id: " + booking.getId());
+        }
+        if (booking.getStatus() != BookingStatus.WAITING) {
+            throw new ValidationException("Booking already processed");
+        }
+        return booking;
+    }
+
+    /**
+     * Меняет статусы принятых решений пакетными обновлениями (по одному на статус).
+     * Обновление затрагивает только ожидающие бронирования: если часть из них уже обработана параллельно,
+     * весь набор отклоняется. После обновления бронирования отсоединены от контекста персистентности,
+     * и новые статусы проставляются им только для ответа и индекса занятости.
+     */
+    private void applyDecisions(Map<Integer, Booking> accepted, List<BookingDecisionDto> decisions) {
+        List<Long> approvedIds = new ArrayList<>();
+        List<Long> rejectedIds = new ArrayList<>();
+        accepted.forEach((index, booking) ->
+                (decisions.get(index).getApproved() ? approvedIds : rejectedIds).add(booking.getId()));
+
+        int updated = 0;
+        if (!approvedIds.isEmpty()) {
+            updated += checkOverlap(() -> bookingRepository.updateWaitingStatus(approvedIds, BookingStatus.APPROVED));
+        }
+        if (!rejectedIds.isEmpty()) {
+            updated += bookingRepository.updateWaitingStatus(rejectedIds, BookingStatus.REJECTED);
+        }
+        if (updated != accepted.size()) {
+            throw new ValidationException("Some bookings were processed concurrently, retry the request");
+        }
+
+        accepted.forEach((index, booking) ->
+                booking.setStatus(decisions.get(index).getApproved() ? BookingStatus.APPROVED : BookingStatus.REJECTED));
     }
 
     /**
@@ -98,46 +396,147 @@ public class BookingServiceImpl implements BookingService {
     }
 
     /**
-     * Возвращает бронирования пользователя с фильтрацией по состоянию
+     * Возвращает страницу бронирований пользователя с фильтрацией по состоянию
      */
     @Override
     @Transactional(readOnly = true)
-    public List<BookingDto> getByBookerId(Long bookerId, String state) {
+    public BookingPage getByBookerId(Long bookerId, String state, String after, Integer limit) {
         // Проверяем существование пользователя
-        if (!userRepository.existsById(bookerId)) {
-            throw new NotFoundException("User not found with id: " + bookerId);
-        }
+        userIdentityCache.checkExists(bookerId);
 
-        // Используем контекст стратегий для получения бронирований
-        List<Booking> bookings = strategyContext.executeBookerStrategy(state, bookerId, bookingRepository);
+        // Используем контекст стратегий для получения бронирований, запрашиваем на одну строку больше,
+        // чтобы понять, есть ли следующая страница
+        Integer pageSize = pageSize(after, limit);
+        List<BookingView> bookings = strategyContext.executeBookerStrategy(
+                state, bookerId, KeysetCursor.decode(after), pageLimit(pageSize), bookingRepository);
 
-        return bookings.stream()
-                .map(booking -> bookingMapper.toBookingDto(booking, true))
-                .collect(Collectors.toList());
+        return toBookingPage(bookings, pageSize);
     }
 
     /**
-     * Возвращает бронирования вещей владельца с фильтрацией по состоянию
+     * Возвращает страницу бронирований вещей владельца с фильтрацией по состоянию
      */
     @Override
     @Transactional(readOnly = true)
-    public List<BookingDto> getByOwnerId(Long ownerId, String state) {
+    public BookingPage getByOwnerId(Long ownerId, String state, String after, Integer limit) {
         // Проверяем существование пользователя
-        if (!userRepository.existsById(ownerId)) {
-            throw new NotFoundException("User not found with id: " + ownerId);
-        }
+        userIdentityCache.checkExists(ownerId);
         // Используем контекст стратегий для получения бронирований
-        List<Booking> bookings = strategyContext.executeOwnerStrategy(state, ownerId, bookingRepository);
+        Integer pageSize = pageSize(after, limit);
+        List<BookingView> bookings = strategyContext.executeOwnerStrategy(
+                state, ownerId, KeysetCursor.decode(after), pageLimit(pageSize), bookingRepository);
+
+        return toBookingPage(bookings, pageSize);
+    }
+
+    /**
+     * Считает бронирования пользователя по состояниям одним запросом.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public BookingSummaryDto getSummaryByBookerId(Long bookerId) {
+        userIdentityCache.checkExists(bookerId);
+        return bookingRepository.countByBookerIdGroupByState(bookerId, LocalDateTime.now());
+    }
+
+    /**
+     * Считает бронирования вещей владельца по состояниям одним запросом.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public BookingSummaryDto getSummaryByOwnerId(Long ownerId) {
+        userIdentityCache.checkExists(ownerId);
+        return bookingRepository.countByItemOwnerIdGroupByState(ownerId, LocalDateTime.now());
+    }
 
-        return bookings.stream()
-                .map(booking -> bookingMapper.toBookingDto(booking, true))
+    /**
+     * Выгружает бронирования владельца построчно в отдельной транзакции только для чтения.
+     * Контекст персистентности периодически очищается, чтобы память не росла вместе с историей.
+     */
+    @Override
+    public StreamingResponseBody exportByOwnerId(Long ownerId) {
+        // Проверяем существование пользователя до начала записи ответа
+        userIdentityCache.checkExists(ownerId);
+
+        return outputStream -> {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+            transactionTemplate.executeWithoutResult(status -> writeOwnerBookings(ownerId, outputStream));
+        };
+    }
+
+    /**
+     * Пишет бронирования владельца в поток, по одному JSON-объекту на строку.
+     */
+    private void writeOwnerBookings(Long ownerId, OutputStream outputStream) {
+        ObjectWriter writer = objectMapper.writerFor(BookingDto.class);
+        try (Stream<Booking> bookings = bookingRepository.streamByItemOwnerId(ownerId)) {
+            Iterator<Booking> iterator = bookings.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                outputStream.write(writer.writeValueAsBytes(bookingMapper.toBookingDtoShort(iterator.next())));
+                outputStream.write('\n');
+                if (++written % EXPORT_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                    outputStream.flush();
+                }
+            }
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Определяет размер страницы. Клиенты, не передающие ни курсор, ни размер,
+     * получают весь список, как до появления постраничной выдачи.
+     *
+     * @return размер страницы или null, если список не ограничен
+     */
+    private Integer pageSize(String after, Integer limit) {
+        if (limit != null) {
+            return limit;
+        }
+        return after == null ? null : DEFAULT_PAGE_SIZE;
+    }
+
+    /**
+     * Проверяет размер страницы и возвращает лимит запроса с одной дополнительной строкой.
+     */
+    private Limit pageLimit(Integer limit) {
+        if (limit == null) {
+            return Limit.unlimited();
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return Limit.of(limit + 1);
+    }
+
+    /**
+     * Формирует страницу: лишняя строка отбрасывается и служит признаком следующей страницы.
+     */
+    private BookingPage toBookingPage(List<BookingView> bookings, Integer limit) {
+        boolean hasNext = limit != null && bookings.size() > limit;
+        List<BookingView> page = hasNext ? bookings.subList(0, limit) : bookings;
+
+        List<BookingDto> bookingDtos = page.stream()
+                .map(bookingMapper::toBookingDto)
                 .collect(Collectors.toList());
+        String nextCursor = null;
+        if (hasNext) {
+            BookingView last = page.get(limit - 1);
+            nextCursor = KeysetCursor.of(last.getStart(), last.getId()).encode();
+        }
+
+        return new BookingPage(bookingDtos, nextCursor);
     }
 
     /**
      * Обновляет данные бронирования.
      */
     @Override
+    @Transactional
     public BookingDto update(Long bookingId, BookingDto bookingDto, Long userId) {
         Booking existingBooking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Booking not found with id: " + bookingId));
@@ -152,6 +551,8 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Cannot update started booking");
         }
 
+        Long oldItemId = existingBooking.getItem().getId();
+
         // Обновляем данные
         if (bookingDto.getStart() != null) {
             existingBooking.setStart(bookingDto.getStart());
@@ -168,7 +569,12 @@ public class BookingServiceImpl implements BookingService {
 
         validateBooking(existingBooking, userId);
 
-        return bookingMapper.toBookingDto(bookingRepository.save(existingBooking));
+        Booking savedBooking = saveAndCheckOverlap(existingBooking);
+        bookingIntervalIndex.refreshAfterCommit(savedBooking);
+        if (savedBooking.getStatus() == BookingStatus.APPROVED) {
+            itemBookingPointers.refreshAfterCommit(Set.of(oldItemId, savedBooking.getItem().getId()));
+        }
+        return bookingMapper.toBookingDto(savedBooking);
     }
 
     /**
@@ -195,15 +601,24 @@ public class BookingServiceImpl implements BookingService {
         }
 
         booking.setStatus(BookingStatus.CANCELED);
-        return bookingMapper.toBookingDto(bookingRepository.save(booking));
+        Booking savedBooking = bookingRepository.save(booking);
+        bookingIntervalIndex.refreshAfterCommit(savedBooking);
+        return bookingMapper.toBookingDto(savedBooking);
     }
 
     /**
      * Удаляет бронирование.
      */
     @Override
+    @Transactional
     public void delete(Long bookingId) {
-        bookingRepository.deleteById(bookingId);
+        bookingRepository.findById(bookingId).ifPresent(booking -> {
+            bookingRepository.delete(booking);
+            bookingIntervalIndex.removeAfterCommit(bookingId, booking.getItem().getId());
+            if (booking.getStatus() == BookingStatus.APPROVED) {
+                itemBookingPointers.refreshAfterCommit(List.of(booking.getItem().getId()));
+            }
+        });
     }
 
 
@@ -233,12 +648,48 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Start date cannot be in past");
         }
 
-        // Проверяем доступность вещи в указанный период
-        boolean hasOverlap = bookingRepository.existOverlappingBookings(
+        // Проверяем доступность вещи в указанный период по индексу занятости,
+        // окончательно пересечение подтвержденных броней проверяет ограничение в базе данных
+        boolean hasOverlap = bookingIntervalIndex.hasOverlap(
                 item.getId(), booking.getStart(), booking.getEnd(), booking.getId());
 
         if (hasOverlap) {
-            throw new ValidationException("Item is already booked for this period");
+            throw new ValidationException(ALREADY_BOOKED_MESSAGE);
+        }
+    }
+
+    /**
+     * Сохраняет бронирование и сразу отправляет изменения в базу данных.
+     */
+    private Booking saveAndCheckOverlap(Booking booking) {
+        return checkOverlap(() -> bookingRepository.saveAndFlush(booking));
+    }
+
+    /**
+     * Выполняет запись в базу данных. Нарушение ограничения EX_BOOKING_APPROVED_PERIOD
+     * (пересечение подтвержденных броней одной вещи) преобразуется в ValidationException.
+     */
+    private <T> T checkOverlap(Supplier<T> write) {
+        try {
+            return write.get();
+        } catch (DataIntegrityViolationException e) {
+            if (isExclusionViolation(e)) {
+                throw new ValidationException(ALREADY_BOOKED_MESSAGE);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Проверяет, вызвано ли исключение нарушением ограничения-исключения PostgreSQL.
+     */
+    private boolean isExclusionViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException &&
+                    EXCLUSION_VIOLATION_SQL_STATE.equals(sqlException.getSQLState())) {
+                return true;
+            }
         }
+        return false;
     }
 }
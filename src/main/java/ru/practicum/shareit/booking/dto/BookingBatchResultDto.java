@@ -0,0 +1,32 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+/**
+ * Результат обработки одного элемента пакетного создания бронирований.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingBatchResultDto {
+    /**
+     * Позиция элемента в исходном пакете.
+     */
+    @JsonProperty("index")
+    private int index;
+
+    /**
+     * Созданное бронирование, если элемент обработан успешно.
+     */
+    @JsonProperty("booking")
+    private BookingDto booking;
+
+    /**
+     * Причина отказа, если бронирование не создано.
+     */
+    @JsonProperty("error")
+    private String error;
+}
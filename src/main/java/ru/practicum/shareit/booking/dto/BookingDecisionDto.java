@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+/**
+ * Решение владельца вещи по одному бронированию.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingDecisionDto {
+    /**
+     * Идентификатор бронирования.
+     */
+    @JsonProperty("bookingId")
+    @NotNull(message = "Booking ID не должен быть null")
+    private Long bookingId;
+
+    /**
+     * true - подтвердить, false - отклонить.
+     */
+    @JsonProperty("approved")
+    @NotNull(message = "Решение по бронированию не должно быть null")
+    private Boolean approved;
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Страница списка бронирований.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingPage {
+    /**
+     * Бронирования текущей страницы.
+     */
+    private final List<BookingDto> bookings;
+
+    /**
+     * Токен курсора следующей страницы или null, если страница последняя.
+     */
+    private final String nextCursor;
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проекция подтвержденного бронирования для пересчета ссылок вещи на последнее и следующее бронирование.
+ * Читается нативным запросом без загрузки бронирований и их авторов.
+ */
+public interface BookingPointerView {
+    Long getId();
+
+    Long getItemId();
+
+    Long getBookerId();
+
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+/**
+ * Количество бронирований пользователя по состояниям.
+ * Состояния совпадают с параметром state списочных запросов.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingSummaryDto {
+    /**
+     * Все бронирования.
+     */
+    @JsonProperty("ALL")
+    private Long all;
+
+    /**
+     * Текущие бронирования.
+     */
+    @JsonProperty("CURRENT")
+    private Long current;
+
+    /**
+     * Завершенные бронирования.
+     */
+    @JsonProperty("PAST")
+    private Long past;
+
+    /**
+     * Будущие бронирования.
+     */
+    @JsonProperty("FUTURE")
+    private Long future;
+
+    /**
+     * Бронирования, ожидающие подтверждения.
+     */
+    @JsonProperty("WAITING")
+    private Long waiting;
+
+    /**
+     * Отклоненные бронирования.
+     */
+    @JsonProperty("REJECTED")
+    private Long rejected;
+
+    /**
+     * Подтвержденные бронирования.
+     */
+    @JsonProperty("APPROVED")
+    private Long approved;
+}
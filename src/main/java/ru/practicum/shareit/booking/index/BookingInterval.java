@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Интервал подтвержденного бронирования вещи.
+ * Легковесное представление бронирования для индекса занятости.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingInterval {
+    /**
+     * Идентификатор бронирования.
+     */
+    private final Long bookingId;
+
+    /**
+     * Идентификатор забронированной вещи.
+     */
+    private final Long itemId;
+
+    /**
+     * Дата и время начала бронирования.
+     */
+    private final LocalDateTime start;
+
+    /**
+     * Дата и время окончания бронирования.
+     */
+    private final LocalDateTime end;
+}
@@ -0,0 +1,203 @@
+package ru.practicum.shareit.booking.index;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.ItemAvailabilityCache;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Индекс занятости вещей в памяти приложения.
+ * Хранит для каждой вещи упорядоченные по началу интервалы подтвержденных бронирований
+ * и позволяет проверять пересечение периодов без обращения к базе данных.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+    private final BookingRepository bookingRepository;
+    private final ItemAvailabilityCache availabilityCache;
+
+    // Интервалы бронирований по идентификатору вещи
+    private final Map<Long, ItemTimeline> timelines = new ConcurrentHashMap<>();
+
+    // Интервалы по идентификатору бронирования, для удаления и переноса
+    private final Map<Long, BookingInterval> intervals = new ConcurrentHashMap<>();
+
+    /**
+     * Загружает подтвержденные бронирования, которые еще не завершились.
+     */
+    @PostConstruct
+    public void load() {
+        timelines.clear();
+        intervals.clear();
+        bookingRepository.findApprovedIntervalsEndingAfter(LocalDateTime.now())
+                .forEach(this::add);
+    }
+
+    /**
+     * Проверяет, пересекается ли период с подтвержденными бронированиями вещи.
+     * Границы периодов включаются, как и в {@link BookingRepository#existOverlappingBookings}.
+     *
+     * @param itemId           идентификатор вещи
+     * @param start            начало периода
+     * @param end              окончание периода
+     * @param excludeBookingId бронирование, которое не нужно учитывать (может быть null)
+     * @return true, если вещь занята в указанный период
+     */
+    public boolean hasOverlap(Long itemId, LocalDateTime start, LocalDateTime end, Long excludeBookingId) {
+        ItemTimeline timeline = timelines.get(itemId);
+        return timeline != null && timeline.hasOverlap(start, end, excludeBookingId);
+    }
+
+    /**
+     * Приводит индекс в соответствие с состоянием бронирования после фиксации текущей транзакции.
+     * Подтвержденное бронирование добавляется (или переносится), остальные удаляются из индекса.
+     * Вместе с индексом сбрасываются закэшированные календари занятости вещи.
+     * Если транзакции нет, изменения применяются сразу.
+     */
+    public void refreshAfterCommit(Booking booking) {
+        Long bookingId = booking.getId();
+        Long itemId = booking.getItem().getId();
+        BookingInterval interval = booking.getStatus() == BookingStatus.APPROVED ? toInterval(booking) : null;
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(bookingId, itemId, interval);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(bookingId, itemId, interval);
+            }
+        });
+    }
+
+    /**
+     * Удаляет бронирование вещи из индекса и сбрасывает календари занятости вещи после фиксации текущей транзакции.
+     * При откате транзакции индекс не меняется. Если транзакции нет, изменения применяются сразу.
+     */
+    public void removeAfterCommit(Long bookingId, Long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(bookingId, itemId, null);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(bookingId, itemId, null);
+            }
+        });
+    }
+
+    private BookingInterval remove(Long bookingId) {
+        BookingInterval removed = intervals.remove(bookingId);
+        if (removed != null) {
+            ItemTimeline timeline = timelines.get(removed.getItemId());
+            if (timeline != null) {
+                timeline.remove(removed);
+            }
+        }
+        return removed;
+    }
+
+    private void apply(Long bookingId, Long itemId, BookingInterval interval) {
+        BookingInterval removed = remove(bookingId);
+        if (interval != null) {
+            add(interval);
+        }
+        // Бронирование могло быть перенесено на другую вещь
+        if (removed != null && !removed.getItemId().equals(itemId)) {
+            availabilityCache.evict(removed.getItemId());
+        }
+        availabilityCache.evict(itemId);
+    }
+
+    private void add(BookingInterval interval) {
+        intervals.put(interval.getBookingId(), interval);
+        timelines.computeIfAbsent(interval.getItemId(), id -> new ItemTimeline())
+                .add(interval, LocalDateTime.now())
+                .forEach(ended -> intervals.remove(ended.getBookingId()));
+    }
+
+    private BookingInterval toInterval(Booking booking) {
+        return new BookingInterval(booking.getId(), booking.getItem().getId(), booking.getStart(), booking.getEnd());
+    }
+
+    /**
+     * Интервалы бронирований одной вещи, упорядоченные по дате начала.
+     * Пересекающийся интервал начинается не раньше, чем (начало периода - самая длинная бронь),
+     * поэтому проверка просматривает только узкий диапазон дерева.
+     */
+    private static class ItemTimeline {
+        private static final Comparator<BookingInterval> ORDER = Comparator
+                .comparing(BookingInterval::getStart)
+                .thenComparing(BookingInterval::getBookingId);
+
+        private final NavigableSet<BookingInterval> byStart = new TreeSet<>(ORDER);
+        private Duration maxDuration = Duration.ZERO;
+
+        synchronized boolean hasOverlap(LocalDateTime start, LocalDateTime end, Long excludeBookingId) {
+            BookingInterval from = probe(start.minus(maxDuration), Long.MIN_VALUE);
+            BookingInterval to = probe(end, Long.MAX_VALUE);
+            if (ORDER.compare(from, to) > 0) {
+                return false;
+            }
+            for (BookingInterval interval : byStart.subSet(from, true, to, true)) {
+                if (!interval.getEnd().isBefore(start) && !interval.getBookingId().equals(excludeBookingId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Добавляет интервал и возвращает удаленные при этом завершившиеся интервалы.
+         */
+        synchronized List<BookingInterval> add(BookingInterval interval, LocalDateTime now) {
+            List<BookingInterval> ended = pruneEndedBefore(now);
+            byStart.add(interval);
+            Duration duration = Duration.between(interval.getStart(), interval.getEnd());
+            if (duration.compareTo(maxDuration) > 0) {
+                maxDuration = duration;
+            }
+            return ended;
+        }
+
+        synchronized void remove(BookingInterval interval) {
+            byStart.remove(interval);
+        }
+
+        // Завершившиеся бронирования больше не могут пересечься с новыми
+        private List<BookingInterval> pruneEndedBefore(LocalDateTime now) {
+            List<BookingInterval> ended = new ArrayList<>();
+            Iterator<BookingInterval> iterator = byStart.headSet(probe(now, Long.MIN_VALUE), false).iterator();
+            while (iterator.hasNext()) {
+                BookingInterval interval = iterator.next();
+                if (interval.getEnd().isBefore(now)) {
+                    iterator.remove();
+                    ended.add(interval);
+                }
+            }
+            return ended;
+        }
+
+        private static BookingInterval probe(LocalDateTime start, Long bookingId) {
+            return new BookingInterval(bookingId, null, start, start);
+        }
+    }
+}
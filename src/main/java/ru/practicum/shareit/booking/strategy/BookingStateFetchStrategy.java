@@ -1,7 +1,9 @@
 package ru.practicum.shareit.booking.strategy;
 
+import org.springframework.data.domain.Limit;
 import ru.practicum.shareit.booking.BookingRepository;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.common.KeysetCursor;
 
 import java.util.List;
 
@@ -10,13 +12,15 @@ import java.util.List;
  */
 public interface BookingStateFetchStrategy {
     /**
-     * Находит бронирования согласно конкретной стратегии.
+     * Находит страницу бронирований согласно конкретной стратегии.
      *
      * @param userId            идентификатор пользователя (booker или owner)
+     * @param cursor            курсор, после которого начинается страница
+     * @param limit             максимальный размер страницы
      * @param bookingRepository репозиторий для доступа к данным бронирований
-     * @return список бронирований, отфильтрованных по стратегии
+     * @return список проекций бронирований, отфильтрованных по стратегии
      */
-    List<Booking> findBookings(Long userId, BookingRepository bookingRepository);
+    List<BookingView> findBookings(Long userId, KeysetCursor cursor, Limit limit, BookingRepository bookingRepository);
 
     /**
      * Возвращает тип состояния для маппинга стратегии.
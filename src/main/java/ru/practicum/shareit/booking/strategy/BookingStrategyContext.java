@@ -1,10 +1,12 @@
 package ru.practicum.shareit.booking.strategy;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.BookingRepository;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.strategy.booker.BookerStrategy;
 import ru.practicum.shareit.booking.strategy.owner.OwnerStrategy;
+import ru.practicum.shareit.common.KeysetCursor;
 
 import java.util.List;
 import java.util.Map;
@@ -34,19 +36,21 @@ public class BookingStrategyContext {
                 ));
     }
 
-    public List<Booking> executeBookerStrategy(String state, Long userId, BookingRepository bookingRepository) {
+    public List<BookingView> executeBookerStrategy(String state, Long userId, KeysetCursor cursor, Limit limit,
+                                               BookingRepository bookingRepository) {
         BookingStateFetchStrategy strategy = bookerStrategies.get(state.toUpperCase());
         if (strategy == null) {
             throw new IllegalArgumentException("Unknown booking state for booker: " + state);
         }
-        return strategy.findBookings(userId, bookingRepository);
+        return strategy.findBookings(userId, cursor, limit, bookingRepository);
     }
 
-    public List<Booking> executeOwnerStrategy(String state, Long userId, BookingRepository bookingRepository) {
+    public List<BookingView> executeOwnerStrategy(String state, Long userId, KeysetCursor cursor, Limit limit,
+                                              BookingRepository bookingRepository) {
         BookingStateFetchStrategy strategy = ownerStrategies.get(state.toUpperCase());
         if (strategy == null) {
             throw new IllegalArgumentException("Unknown booking state for owner: " + state);
         }
-        return strategy.findBookings(userId, bookingRepository);
+        return strategy.findBookings(userId, cursor, limit, bookingRepository);
     }
 }
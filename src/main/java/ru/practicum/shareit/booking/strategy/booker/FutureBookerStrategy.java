@@ -1,9 +1,11 @@
 package ru.practicum.shareit.booking.strategy.booker;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.BookingRepository;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.common.KeysetCursor;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -15,8 +17,10 @@ import java.util.List;
 @RequiredArgsConstructor
 public class FutureBookerStrategy implements BookerStrategy {
     @Override
-    public List<Booking> findBookings(Long userId, BookingRepository bookingRepository) {
-        return bookingRepository.findByBookerIdAndStartAfterOrderByStartDesc(userId, LocalDateTime.now());
+    public List<BookingView> findBookings(Long userId, KeysetCursor cursor, Limit limit,
+                                      BookingRepository bookingRepository) {
+        return bookingRepository.findByBookerIdAndStartAfterOrderByStartDesc(userId, LocalDateTime.now(),
+                cursor.getTimestamp(), cursor.getId(), limit);
     }
 
     @Override
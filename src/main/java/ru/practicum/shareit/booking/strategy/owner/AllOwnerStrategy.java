@@ -1,9 +1,11 @@
 package ru.practicum.shareit.booking.strategy.owner;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.BookingRepository;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.common.KeysetCursor;
 
 import java.util.List;
 
@@ -14,8 +16,10 @@ import java.util.List;
 @RequiredArgsConstructor
 public class AllOwnerStrategy implements OwnerStrategy {
     @Override
-    public List<Booking> findBookings(Long userId, BookingRepository bookingRepository) {
-        return bookingRepository.findByItemOwnerIdOrderByStartDesc(userId);
+    public List<BookingView> findBookings(Long userId, KeysetCursor cursor, Limit limit,
+                                      BookingRepository bookingRepository) {
+        return bookingRepository.findByItemOwnerIdOrderByStartDesc(userId,
+                cursor.getTimestamp(), cursor.getId(), limit);
     }
 
     @Override
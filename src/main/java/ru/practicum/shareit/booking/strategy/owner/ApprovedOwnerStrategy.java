@@ -1,10 +1,12 @@
 package ru.practicum.shareit.booking.strategy.owner;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.dto.BookingStatus;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.common.KeysetCursor;
 
 import java.util.List;
 
@@ -15,8 +17,10 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ApprovedOwnerStrategy implements OwnerStrategy {
     @Override
-    public List<Booking> findBookings(Long userId, BookingRepository bookingRepository) {
-        return bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(userId, BookingStatus.APPROVED);
+    public List<BookingView> findBookings(Long userId, KeysetCursor cursor, Limit limit,
+                                      BookingRepository bookingRepository) {
+        return bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(userId, BookingStatus.APPROVED,
+                cursor.getTimestamp(), cursor.getId(), limit);
     }
 
     @Override
@@ -2,9 +2,11 @@ package ru.practicum.shareit.booking.strategy.owner;
 
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.BookingRepository;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.common.KeysetCursor;
 
 import java.util.List;
 
@@ -17,8 +19,10 @@ import java.time.LocalDateTime;
 @RequiredArgsConstructor
 public class CurrentOwnerStrategy implements OwnerStrategy {
     @Override
-    public List<Booking> findBookings(Long userId, BookingRepository bookingRepository) {
-        return bookingRepository.findByItemOwnerIdAndStartBeforeOrderByStartDesc(userId, LocalDateTime.now());
+    public List<BookingView> findBookings(Long userId, KeysetCursor cursor, Limit limit,
+                                      BookingRepository bookingRepository) {
+        return bookingRepository.findByItemOwnerIdAndStartBeforeOrderByStartDesc(userId, LocalDateTime.now(),
+                cursor.getTimestamp(), cursor.getId(), limit);
     }
 
     @Override
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.common;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Курсор постраничной выдачи по ключу сортировки (момент времени, id).
+ * Указывает на последнюю выданную запись, следующая страница начинается строго после нее.
+ * Клиенту передается как непрозрачный токен.
+ */
+@Getter
+@AllArgsConstructor
+public class KeysetCursor {
+    // Курсор первой страницы: позже любой реальной записи при сортировке от новых к старым
+    private static final KeysetCursor FIRST = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+    private static final String SEPARATOR = "_";
+
+    /**
+     * Момент времени последней выданной записи (начало брони, дата создания и т.п.).
+     */
+    private final LocalDateTime timestamp;
+
+    /**
+     * Идентификатор последней выданной записи.
+     */
+    private final Long id;
+
+    /**
+     * Возвращает курсор первой страницы.
+     */
+    public static KeysetCursor first() {
+        return FIRST;
+    }
+
+    /**
+     * Возвращает курсор, указывающий на запись с переданным ключом.
+     */
+    public static KeysetCursor of(LocalDateTime timestamp, Long id) {
+        return new KeysetCursor(timestamp, id);
+    }
+
+    /**
+     * Разбирает курсор из строкового токена, пустой токен означает первую страницу.
+     *
+     * @throws ValidationException если токен поврежден
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return first();
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+            return new KeysetCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ValidationException("Invalid cursor: " + token);
+        }
+    }
+
+    /**
+     * Кодирует курсор в непрозрачный для клиента токен.
+     */
+    public String encode() {
+        String value = timestamp + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
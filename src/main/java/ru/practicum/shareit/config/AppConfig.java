@@ -3,8 +3,10 @@ package ru.practicum.shareit.config;
 
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @Configuration
+@EnableScheduling
 @PropertySource("classpath:/application.properties")
 //@PropertySource("classpath:/application-test.properties")
 public class AppConfig {
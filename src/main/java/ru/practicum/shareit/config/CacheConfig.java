@@ -0,0 +1,33 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+
+/**
+ * Настройка кэша второго уровня Hibernate.
+ * Менеджер кэшей создается здесь, а не по hibernate.javax.cache.uri: Hibernate ищет такой файл как ресурс
+ * и передает провайдеру URI внутри jar, который провайдер прочитать не может.
+ */
+@Configuration
+public class CacheConfig {
+    // Размеры и время жизни регионов
+    private static final URI HIBERNATE_CACHE_CONFIG = URI.create("classpath:hibernate-jcache.conf");
+
+    @Bean
+    public CacheManager hibernateCacheManager() {
+        return Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(HIBERNATE_CACHE_CONFIG, getClass().getClassLoader());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
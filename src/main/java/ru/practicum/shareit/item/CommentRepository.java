@@ -1,10 +1,13 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -12,16 +15,29 @@ import java.util.List;
  */
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     /**
-     * Находит все комментарии для указанной вещи, отсортированные по дате создания.
+     * Находит страницу комментариев к вещи после курсора, отсортированную от новых к старым.
+     * Выборка идет по индексу IX_COMMENT_ITEM_CREATED (item_id, created DESC, id DESC).
      */
-    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.item.id = :itemId ORDER BY c.created DESC")
-    List<Comment> findByItemIdOrderByCreatedDesc(@Param("itemId") Long itemId);
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.item.id = :itemId " +
+            "AND (c.created < :cursorCreated OR (c.created = :cursorCreated AND c.id < :cursorId)) " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<Comment> findPageByItemId(@Param("itemId") Long itemId, @Param("cursorCreated") LocalDateTime cursorCreated,
+                                   @Param("cursorId") Long cursorId, Limit limit);
 
     /**
-     * Находит все комментарии для списка вещей.
+     * Находит идентификаторы не более limit последних комментариев к каждой из вещей.
      */
-    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.item.id IN :itemIds ORDER BY c.item.id, c.created DESC")
-    List<Comment> findByItemIdInOrderByCreatedDesc(@Param("itemIds") List<Long> itemIds);
+    @Query(value = "SELECT ranked.id FROM (SELECT c.id, " +
+            "ROW_NUMBER() OVER (PARTITION BY c.item_id ORDER BY c.created DESC, c.id DESC) AS rn " +
+            "FROM comments c WHERE c.item_id IN (:itemIds)) ranked " +
+            "WHERE ranked.rn <= :limit", nativeQuery = true)
+    List<Long> findLatestIdsByItemIdIn(@Param("itemIds") Collection<Long> itemIds, @Param("limit") int limit);
+
+    /**
+     * Находит комментарии с авторами, отсортированные по вещи и от новых к старым.
+     */
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.id IN :ids ORDER BY c.item.id, c.created DESC, c.id DESC")
+    List<Comment> findWithAuthorByIdIn(@Param("ids") Collection<Long> ids);
 
     /**
      * Проверяет, существует ли комментарий от пользователя к вещи.
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.item;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.index.BookingInterval;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Кэш занятости вещей: для каждой вещи хранятся объединенные периоды ее подтвержденных бронирований,
+ * а календарь любого окна вычисляется по ним, поэтому запросы с разными окнами используют одну запись.
+ * Размер кэша ограничен суммарным числом периодов, запись вещи сбрасывается при изменении ее бронирований.
+ * Статистика кэша публикуется в метриках cache.* с тегом cache=itemAvailability.
+ */
+@Component
+public class ItemAvailabilityCache {
+    private static final String CACHE_NAME = "itemAvailability";
+
+    private final Cache<Long, List<Period>> cache;
+
+    public ItemAvailabilityCache(@Value("${shareit.item.availability-cache.maximum-periods:1000000}") long maximumPeriods,
+                                 @Value("${shareit.item.availability-cache.expire-after-access:PT10M}")
+                                 Duration expireAfterAccess,
+                                 MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumPeriods)
+                .<Long, List<Period>>weigher((itemId, periods) -> periods.size() + 1)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Возвращает календарь занятости вещи в окне.
+     * Периоды вещи загружаются атомарно, поэтому сброс, пришедший во время загрузки,
+     * дождется ее окончания и удалит загруженное значение.
+     *
+     * @param loader загрузка подтвержденных бронирований вещи в порядке начала
+     */
+    public ItemAvailabilityDto get(Long itemId, LocalDateTime from, LocalDateTime to,
+                                   Function<Long, List<BookingInterval>> loader) {
+        List<Period> periods = cache.get(itemId, id -> merge(loader.apply(id)));
+
+        List<ItemAvailabilityDto.PeriodDto> busy = new ArrayList<>();
+        List<ItemAvailabilityDto.PeriodDto> free = new ArrayList<>();
+        LocalDateTime freeFrom = from;
+        for (int i = firstEndingAtOrAfter(periods, from); i < periods.size(); i++) {
+            Period period = periods.get(i);
+            if (period.start().isAfter(to)) {
+                break;
+            }
+            LocalDateTime start = period.start().isBefore(from) ? from : period.start();
+            LocalDateTime end = period.end().isAfter(to) ? to : period.end();
+            if (start.isAfter(freeFrom)) {
+                free.add(new ItemAvailabilityDto.PeriodDto(freeFrom, start));
+            }
+            busy.add(new ItemAvailabilityDto.PeriodDto(start, end));
+            freeFrom = end;
+        }
+        if (freeFrom.isBefore(to)) {
+            free.add(new ItemAvailabilityDto.PeriodDto(freeFrom, to));
+        }
+
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .busy(busy)
+                .free(free)
+                .build();
+    }
+
+    /**
+     * Сбрасывает занятость вещи.
+     */
+    public void evict(Long itemId) {
+        cache.invalidate(itemId);
+    }
+
+    /**
+     * Сбрасывает занятость вещи после фиксации текущей транзакции,
+     * чтобы до фиксации кэш не заполнился еще не измененными данными.
+     */
+    public void evictAfterCommit(Long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(itemId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(itemId);
+            }
+        });
+    }
+
+    /**
+     * Объединяет пересекающиеся и соприкасающиеся бронирования, отсортированные по началу, за один проход.
+     */
+    private static List<Period> merge(List<BookingInterval> intervals) {
+        List<Period> periods = new ArrayList<>();
+        LocalDateTime start = null;
+        LocalDateTime end = null;
+        for (BookingInterval interval : intervals) {
+            if (start != null && !interval.getStart().isAfter(end)) {
+                if (interval.getEnd().isAfter(end)) {
+                    end = interval.getEnd();
+                }
+                continue;
+            }
+            if (start != null) {
+                periods.add(new Period(start, end));
+            }
+            start = interval.getStart();
+            end = interval.getEnd();
+        }
+        if (start != null) {
+            periods.add(new Period(start, end));
+        }
+        return List.copyOf(periods);
+    }
+
+    /**
+     * Двоичным поиском находит первый период, который заканчивается не раньше момента.
+     * Объединенные периоды не пересекаются, поэтому упорядочены и по началу, и по окончанию.
+     */
+    private static int firstEndingAtOrAfter(List<Period> periods, LocalDateTime moment) {
+        int low = 0;
+        int high = periods.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (periods.get(middle).end().isBefore(moment)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private record Period(LocalDateTime start, LocalDateTime end) {
+    }
+}
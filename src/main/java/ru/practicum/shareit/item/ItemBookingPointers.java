@@ -0,0 +1,116 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Поддерживает ссылки вещей на последнее и следующее подтвержденное бронирование.
+ * Ссылки пересчитываются при изменении подтвержденных бронирований вещи, а по расписанию
+ * следующее бронирование, которое уже началось, переходит в последнее.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemBookingPointers {
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Пересчитывает ссылки вещей после фиксации текущей транзакции в отдельной короткой транзакции,
+     * чтобы изменение бронирований не держало блокировку строк вещей до своей фиксации.
+     *
+     * @param itemIds идентификаторы вещей
+     */
+    public void refreshAfterCommit(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = Set.copyOf(itemIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refreshInNewTransaction(ids);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                refreshInNewTransaction(ids);
+            }
+        });
+    }
+
+    /**
+     * Пересчитывает ссылки вещей в текущей транзакции.
+     * Строки вещей блокируются в порядке идентификаторов, поэтому параллельные пересчеты одной вещи идут по очереди,
+     * и каждый читает бронирования, зафиксированные до получения блокировки.
+     *
+     * @param itemIds идентификаторы вещей
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void refresh(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        // Изменения бронирований текущей транзакции должны попасть в базу до пересчета
+        bookingRepository.flush();
+        List<Item> items = itemRepository.findAllByIdInForUpdate(itemIds);
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Booking> lastByItemId = new HashMap<>();
+        Map<Long, Booking> nextByItemId = new HashMap<>();
+        // Ссылки проставляются без загрузки бронирований и их авторов
+        bookingRepository.findLastAndNextApprovedByItemIdIn(itemIds, now)
+                .forEach(booking -> (booking.getStartDate().isAfter(now) ? nextByItemId : lastByItemId)
+                        .put(booking.getItemId(), bookingRepository.getReferenceById(booking.getId())));
+
+        items.forEach(item -> {
+            item.setLastBooking(lastByItemId.get(item.getId()));
+            item.setNextBooking(nextByItemId.get(item.getId()));
+        });
+    }
+
+    private void refreshInNewTransaction(Set<Long> itemIds) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate.executeWithoutResult(status -> refresh(itemIds));
+    }
+
+    /**
+     * Переводит начавшиеся следующие бронирования в последние.
+     */
+    @Scheduled(fixedDelayString = "${shareit.item.booking-pointers.roll-forward-delay:PT1M}")
+    @Transactional
+    public void rollForward() {
+        List<Long> itemIds = itemRepository.findIdsWithStartedNextBooking(LocalDateTime.now());
+        refresh(itemIds);
+    }
+
+    /**
+     * Заполняет ссылки вещей, бронирования которых подтверждены до появления ссылок.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void fillMissing() {
+        List<Long> itemIds = itemRepository.findIdsWithMissingBookings();
+        refresh(itemIds);
+    }
+}
@@ -2,11 +2,18 @@ package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPage;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -22,6 +29,12 @@ public class ItemController {
 
     // Имя заголовка для передачи идентификатора пользователя
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    // Имя заголовка с оценкой общего числа результатов поиска
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    private static final String DEFAULT_SEARCH_SIZE = "20";
+    // Имя заголовка с курсором следующей страницы комментариев
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String DEFAULT_COMMENTS_LIMIT = "20";
 
     /**
      * Создает новую вещь от имени пользователя
@@ -85,14 +98,56 @@ public class ItemController {
     }
 
     /**
-     * Ищет доступные вещи по тексту
+     * Ищет доступные вещи по тексту, более релевантные первыми.
+     * Оценка общего числа найденных вещей передается в заголовке X-Total-Count.
      *
-     * @param text текст для поиска (из параметра запроса)
-     * @return список подходящих вещей
+     * @param text   текст для поиска (из параметра запроса)
+     * @param from   начало периода, в который вещь должна быть свободна (необязательно)
+     * @param to     окончание периода, в который вещь должна быть свободна (необязательно)
+     * @param fuzzy  искать с учетом опечаток
+     * @param offset сколько результатов пропустить
+     * @param size   размер страницы
+     * @return страница подходящих вещей
      */
     @GetMapping("/search")
-    public List<ItemDto> search(@RequestParam String text) {
-        return itemService.search(text);
+    public ResponseEntity<List<ItemDto>> search(@RequestParam String text,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                @RequestParam(defaultValue = "false") boolean fuzzy,
+                                                @RequestParam(defaultValue = "0") int offset,
+                                                @RequestParam(defaultValue = DEFAULT_SEARCH_SIZE) int size) {
+        ItemSearchPage page = itemService.search(text, from, to, fuzzy, offset, size);
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(page.getTotalHits()))
+                .body(page.getItems());
+    }
+
+    /**
+     * Возвращает подсказки для поиска по началу слова в названии вещи
+     *
+     * @param prefix начало слова
+     * @param limit  максимальное число подсказок
+     * @return идентификаторы и названия вещей
+     */
+    @GetMapping("/suggest")
+    public List<ItemSuggestionDto> suggest(@RequestParam String prefix,
+                                           @RequestParam(defaultValue = "10") int limit) {
+        return itemService.suggest(prefix, limit);
+    }
+
+    /**
+     * Возвращает занятые и свободные периоды вещи в указанном окне
+     *
+     * @param id   идентификатор вещи
+     * @param from начало окна
+     * @param to   окончание окна
+     * @return календарь занятости вещи
+     */
+    @GetMapping("/{id}/availability")
+    public ItemAvailabilityDto getAvailability(@PathVariable Long id,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getAvailability(id, from, to);
     }
 
     /**
@@ -105,4 +160,25 @@ public class ItemController {
         return itemService.addComment(itemId, commentDto, userId);
     }
 
+    /**
+     * Возвращает страницу комментариев к вещи от новых к старым.
+     * Курсор следующей страницы передается в заголовке X-Next-Cursor.
+     *
+     * @param itemId идентификатор вещи
+     * @param cursor курсор из заголовка предыдущей страницы
+     * @param limit  размер страницы
+     * @return комментарии страницы
+     */
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentDto>> getComments(@PathVariable Long itemId,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(defaultValue = DEFAULT_COMMENTS_LIMIT) int limit) {
+        CommentPage page = itemService.getComments(itemId, cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getComments());
+    }
+
 }
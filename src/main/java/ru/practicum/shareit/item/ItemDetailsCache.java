@@ -0,0 +1,64 @@
+package ru.practicum.shareit.item;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Кэш карточек вещей в том виде, в каком их видит любой пользователь: вещь и последние комментарии.
+ * Информация о бронированиях для владельца в кэш не попадает и добавляется поверх карточки.
+ * Статистика кэша публикуется в метриках cache.* с тегом cache=itemDetails.
+ */
+@Component
+public class ItemDetailsCache {
+    private static final String CACHE_NAME = "itemDetails";
+
+    private final Cache<Long, ItemDto> cache;
+
+    public ItemDetailsCache(@Value("${shareit.item.details-cache.maximum-size:10000}") long maximumSize,
+                            @Value("${shareit.item.details-cache.expire-after-write:PT10M}") Duration expireAfterWrite,
+                            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Возвращает карточку из кэша или загружает и запоминает ее.
+     * Загрузка одной вещи выполняется атомарно, поэтому сброс, пришедший во время загрузки,
+     * дождется ее окончания и удалит загруженное значение.
+     * Возвращаемую карточку нельзя изменять: она общая для всех запросов.
+     */
+    public ItemDto get(Long itemId, Function<Long, ItemDto> loader) {
+        return cache.get(itemId, loader);
+    }
+
+    /**
+     * Сбрасывает карточку вещи после фиксации текущей транзакции,
+     * чтобы до фиксации кэш не заполнился еще не измененными данными.
+     */
+    public void evictAfterCommit(Long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.invalidate(itemId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.invalidate(itemId);
+            }
+        });
+    }
+}
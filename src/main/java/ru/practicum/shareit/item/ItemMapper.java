@@ -40,6 +40,7 @@ public class ItemMapper {
                 .lastBooking(null)
                 .nextBooking(null)
                 .comments(Collections.emptyList())
+                .commentCount(item.getCommentCount())
                 .build();
     }
 
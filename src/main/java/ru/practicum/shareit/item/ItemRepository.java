@@ -1,16 +1,28 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Интерфейс репозитория для работы с вещами.
  */
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemSearchRepository {
+    // Автор бронирования загружается жадно, поэтому без его присоединения на каждое бронирование ушел бы отдельный запрос
+    String WITH_BOOKINGS_JOINS = "LEFT JOIN FETCH i.lastBooking lb LEFT JOIN FETCH lb.booker " +
+            "LEFT JOIN FETCH i.nextBooking nb LEFT JOIN FETCH nb.booker ";
 
     /**
      * Находит все вещи определенного владельца
@@ -21,15 +33,61 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findByOwnerId(Long ownerId);
 
     /**
-     * Ищет вещи по тексту в названии или описании.
-     * Возвращает только доступные для аренды вещи.
-     *
-     * @param text текст для поиска
-     * @return список подходящих вещей
+     * Проверяет существование вещи.
+     * Результат хранится в кэше запросов и сбрасывается при любом изменении таблицы вещей.
+     */
+    @Query("SELECT COUNT(i) > 0 FROM Item i WHERE i.id = :id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    boolean existsById(@Param("id") Long id);
+
+    /**
+     * Проверяет, добавлена ли хотя бы одна вещь в ответ на запрос.
+     */
+    boolean existsByRequestId(Long requestId);
+
+    /**
+     * Находит вещи, добавленные в ответ на любой из запросов.
+     */
+    @Query("SELECT i FROM Item i WHERE i.request.id IN :requestIds ORDER BY i.id")
+    List<Item> findByRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
+
+    /**
+     * Находит вещь вместе с последним и следующим бронированием и их авторами одним запросом.
+     */
+    @Query("SELECT i FROM Item i " + WITH_BOOKINGS_JOINS + "WHERE i.id = :id")
+    Optional<Item> findWithBookingsById(@Param("id") Long id);
+
+    /**
+     * Находит вещи владельца вместе с их последним и следующим бронированием и их авторами одним запросом.
+     */
+    @Query("SELECT i FROM Item i " + WITH_BOOKINGS_JOINS + "WHERE i.owner.id = :ownerId ORDER BY i.id")
+    List<Item> findWithBookingsByOwnerId(@Param("ownerId") Long ownerId);
+
+    /**
+     * Находит вещи и блокирует их строки до конца транзакции.
+     * Строки блокируются в порядке идентификаторов, чтобы параллельные транзакции не взаимоблокировались.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id IN :ids ORDER BY i.id")
+    List<Item> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Находит вещи, чье следующее бронирование уже началось.
+     */
+    @Query("SELECT i.id FROM Item i JOIN i.nextBooking b WHERE b.start <= :now")
+    List<Long> findIdsWithStartedNextBooking(@Param("now") LocalDateTime now);
+
+    /**
+     * Находит вещи без ссылок на бронирования, у которых есть подтвержденные бронирования.
+     */
+    @Query("SELECT DISTINCT b.item.id FROM Booking b " +
+            "WHERE b.status = 'APPROVED' AND b.item.lastBooking IS NULL AND b.item.nextBooking IS NULL")
+    List<Long> findIdsWithMissingBookings();
+
+    /**
+     * Возвращает идентификаторы и названия всех доступных вещей для индекса подсказок.
      */
-    @Query("SELECT i FROM Item i WHERE i.available = true AND " +
-            "(LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) OR " +
-            "LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%')))")
-    List<Item> search(@Param("text") String text);
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemSuggestionDto(i.id, i.name) FROM Item i WHERE i.available = true")
+    List<ItemSuggestionDto> findAvailableSuggestions();
 
 }
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Дополнение репозитория вещей для поиска по тексту.
+ */
+public interface ItemSearchRepository {
+    /**
+     * Ищет доступные вещи по тексту в названии или описании и возвращает одну страницу результатов.
+     * Более релевантные вещи идут первыми, совпадения в названии важнее совпадений в описании.
+     * Если задан период, вещи с подтвержденным бронированием, пересекающимся с ним, отсекаются в том же запросе.
+     * Нечеткий поиск должен вызываться в транзакции.
+     *
+     * @param text   текст для поиска
+     * @param from   начало периода (может быть null)
+     * @param to     окончание периода (может быть null)
+     * @param fuzzy  искать похожие слова с учетом опечаток, отсекая вещи ниже настроенного порога сходства
+     * @param offset сколько результатов пропустить
+     * @param limit  максимальный размер страницы
+     * @return вещи страницы
+     */
+    List<Item> search(String text, LocalDateTime from, LocalDateTime to, boolean fuzzy, int offset, int limit);
+
+    /**
+     * Считает вещи, подходящие под те же условия, что и {@link #search}, но не больше предела.
+     * Подсчет останавливается на пределе, поэтому его стоимость не зависит от размера каталога.
+     *
+     * @param text  текст для поиска
+     * @param from  начало периода (может быть null)
+     * @param to    окончание периода (может быть null)
+     * @param fuzzy искать похожие слова с учетом опечаток
+     * @param cap   предел подсчета
+     * @return число найденных вещей, но не больше предела
+     */
+    long countHits(String text, LocalDateTime from, LocalDateTime to, boolean fuzzy, int cap);
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.springframework.beans.factory.annotation.Value;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Реализация поиска вещей.
+ * В PostgreSQL точный поиск идет по столбцу search_vector с GIN-индексом, а нечеткий - по триграммным
+ * GIN-индексам pg_trgm (см. schema-postgresql.sql). В остальных базах (H2 в тестовом профиле)
+ * оба режима сводятся к поиску подстроки через LIKE.
+ */
+public class ItemSearchRepositoryImpl implements ItemSearchRepository {
+    // Точный поиск: ts_rank учитывает веса, совпадения в названии (A) весят больше совпадений в описании (B)
+    private static final String FULL_TEXT_SQL =
+            "FROM items i, to_tsquery('simple', :query) q " +
+            "WHERE i.is_available AND i.search_vector @@ q ";
+    private static final String FULL_TEXT_ORDER_SQL = "ORDER BY ts_rank(i.search_vector, q) DESC, i.id";
+
+    // Нечеткий поиск: оператор <% использует триграммные индексы с порогом pg_trgm.word_similarity_threshold,
+    // вещи с похожим названием идут раньше вещей с похожим только описанием
+    private static final String THRESHOLD_SQL =
+            "SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)";
+    private static final String SIMILAR_SQL =
+            "FROM items i WHERE i.is_available AND (:text <% i.name OR :text <% i.description) ";
+    private static final String SIMILAR_ORDER_SQL =
+            "ORDER BY :text <% i.name DESC, word_similarity(:text, i.name) DESC, " +
+            "word_similarity(:text, i.description) DESC, i.id";
+
+    private static final String FREE_SQL =
+            "AND NOT EXISTS (SELECT 1 FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED' " +
+            "AND b.start_date <= :to AND b.end_date >= :from) ";
+
+    private static final String LIKE_JPQL =
+            "FROM Item i WHERE i.available = true AND " +
+            "(LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) OR " +
+            "LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%'))) ";
+    private static final String LIKE_FREE_JPQL =
+            "AND NOT EXISTS (SELECT b.id FROM Booking b WHERE b.item.id = i.id AND b.status = 'APPROVED' " +
+            "AND b.start <= :to AND b.end >= :from) ";
+    private static final String LIKE_ORDER_JPQL =
+            "ORDER BY CASE WHEN LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) THEN 0 ELSE 1 END, i.id";
+
+    private final EntityManager entityManager;
+    private final boolean postgresql;
+    private final double similarityThreshold;
+
+    public ItemSearchRepositoryImpl(EntityManager entityManager,
+                                    @Value("${shareit.item.search.postgresql:false}") boolean postgresql,
+                                    @Value("${shareit.item.search.similarity-threshold:0.4}") double similarityThreshold) {
+        this.entityManager = entityManager;
+        this.postgresql = postgresql;
+        this.similarityThreshold = similarityThreshold;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Item> search(String text, LocalDateTime from, LocalDateTime to, boolean fuzzy, int offset, int limit) {
+        Query query = createQuery(text, from, to, fuzzy, false);
+        if (query == null) {
+            return List.of();
+        }
+        return query.setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public long countHits(String text, LocalDateTime from, LocalDateTime to, boolean fuzzy, int cap) {
+        Query query = createQuery(text, from, to, fuzzy, true);
+        if (query == null) {
+            return 0;
+        }
+        return ((Number) query.setParameter("cap", cap)
+                .getSingleResult())
+                .longValue();
+    }
+
+    /**
+     * Собирает запрос страницы вещей или запрос подсчета в базе: count(*) по подзапросу без сортировки,
+     * ограниченному параметром cap. Возвращает null, если в тексте нет ни одного слова для полнотекстового поиска.
+     */
+    private Query createQuery(String text, LocalDateTime from, LocalDateTime to, boolean fuzzy, boolean count) {
+        boolean window = from != null && to != null;
+        Query query;
+        if (!postgresql) {
+            // В HQL предел подзапроса допускается только после сортировки
+            String fromWhere = LIKE_JPQL + (window ? LIKE_FREE_JPQL : "");
+            query = count
+                    ? entityManager.createQuery("SELECT count(*) FROM (SELECT i.id AS id " + fromWhere +
+                    "ORDER BY i.id LIMIT :cap) hits", Long.class)
+                    : entityManager.createQuery("SELECT i " + fromWhere + LIKE_ORDER_JPQL, Item.class);
+            query.setParameter("text", text);
+        } else if (fuzzy) {
+            // Порог действует до конца текущей транзакции
+            entityManager.createNativeQuery(THRESHOLD_SQL)
+                    .setParameter("threshold", String.valueOf(similarityThreshold))
+                    .getSingleResult();
+            query = createNativeQuery(SIMILAR_SQL + (window ? FREE_SQL : ""), SIMILAR_ORDER_SQL, count);
+            query.setParameter("text", text);
+        } else {
+            String tsQuery = toPrefixTsQuery(text);
+            if (tsQuery.isEmpty()) {
+                return null;
+            }
+            query = createNativeQuery(FULL_TEXT_SQL + (window ? FREE_SQL : ""), FULL_TEXT_ORDER_SQL, count);
+            query.setParameter("query", tsQuery);
+        }
+        if (window) {
+            query.setParameter("from", from);
+            query.setParameter("to", to);
+        }
+        return query;
+    }
+
+    private Query createNativeQuery(String fromWhere, String orderBy, boolean count) {
+        return count
+                ? entityManager.createNativeQuery("SELECT count(*) FROM (SELECT 1 " + fromWhere + "LIMIT :cap) hits")
+                : entityManager.createNativeQuery("SELECT i.* " + fromWhere + orderBy, Item.class);
+    }
+
+    /**
+     * Собирает запрос tsquery из слов текста: каждое слово ищется как префикс, все слова обязательны.
+     * Спецсимволы tsquery отбрасываются вместе с остальными разделителями.
+     */
+    private static String toPrefixTsQuery(String text) {
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
@@ -1,9 +1,15 @@
 package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPage;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -57,12 +63,29 @@ public interface ItemService {
     void delete(Long id);
 
     /**
-     * Ищет доступные вещи по тексту.
+     * Ищет доступные вещи по тексту и возвращает одну страницу результатов, более релевантные первыми.
+     * Если задан период, возвращаются только вещи без подтвержденных бронирований в этом периоде.
      *
-     * @param text текст для поиска.
-     * @return список подходящих вещей в формате DTO.
+     * @param text   текст для поиска.
+     * @param from   начало периода (может быть null).
+     * @param to     окончание периода (может быть null).
+     * @param fuzzy  искать с учетом опечаток, упорядочивая вещи по сходству с текстом.
+     * @param offset сколько результатов пропустить.
+     * @param size   размер страницы.
+     * @return вещи страницы в формате DTO и оценка общего числа найденных вещей.
+     * @throws ValidationException если период или параметры страницы заданы некорректно.
      */
-    List<ItemDto> search(String text);
+    ItemSearchPage search(String text, LocalDateTime from, LocalDateTime to, boolean fuzzy, int offset, int size);
+
+    /**
+     * Возвращает подсказки по началу слова в названии доступной вещи без обращения к базе данных.
+     *
+     * @param prefix начало слова.
+     * @param limit  максимальное число подсказок.
+     * @return идентификаторы и названия вещей по алфавиту.
+     * @throws ValidationException если число подсказок некорректно.
+     */
+    List<ItemSuggestionDto> suggest(String prefix, int limit);
 
     /**
      * Добавляет комментарий к вещи.
@@ -74,6 +97,31 @@ public interface ItemService {
      */
     CommentDto addComment(Long itemId, CommentDto commentDto, Long userId);
 
+    /**
+     * Возвращает страницу комментариев к вещи от новых к старым.
+     *
+     * @param itemId идентификатор вещи
+     * @param cursor курсор предыдущей страницы (null для первой страницы)
+     * @param limit  размер страницы
+     * @return комментарии страницы и курсор следующей страницы
+     * @throws NotFoundException   если вещь не найдена
+     * @throws ValidationException если курсор поврежден или размер страницы некорректен
+     */
+    CommentPage getComments(Long itemId, String cursor, int limit);
+
+    /**
+     * Возвращает календарь занятости вещи: объединенные периоды подтвержденных бронирований
+     * и свободные периоды между ними в пределах окна.
+     *
+     * @param itemId идентификатор вещи
+     * @param from   начало окна
+     * @param to     окончание окна
+     * @return занятые и свободные периоды
+     * @throws NotFoundException   если вещь не найдена
+     * @throws ValidationException если окно задано некорректно
+     */
+    ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
     /**
      * Находит последнее завершенное бронирование для вещи.
      */
@@ -1,18 +1,29 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingPointerView;
 import ru.practicum.shareit.booking.dto.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.common.KeysetCursor;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPage;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.index.ItemNameIndex;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.RequestMatcher;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserIdentityCache;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -26,12 +37,27 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    // Максимальное число подсказок в одном ответе
+    private static final int MAX_SUGGESTIONS = 50;
+    // Максимальный размер страницы результатов поиска
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    // До какого значения точно считать общее число результатов поиска
+    private static final int SEARCH_HITS_COUNT_CAP = 1000;
+    // Сколько последних комментариев включать в вещь
+    private static final int LATEST_COMMENTS_COUNT = 10;
+    // Максимальный размер страницы комментариев
+    private static final int MAX_COMMENTS_PAGE_SIZE = 100;
+
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemMapper itemMapper;
     private final CommentMapper commentMapper;
+    private final ItemAvailabilityCache availabilityCache;
+    private final ItemNameIndex itemNameIndex;
+    private final ItemDetailsCache itemDetailsCache;
+    private final RequestMatcher requestMatcher;
 
 
     /**
@@ -40,13 +66,15 @@ public class ItemServiceImpl implements ItemService {
     @Override
     @Transactional
     public ItemDto create(ItemDto itemDto, Long ownerId) {
-        User owner = userRepository.findById(ownerId)
-                .orElseThrow(() -> new NotFoundException("User not found with id: " + ownerId));
+        User owner = userIdentityCache.getReference(ownerId);
 
         Item item = itemMapper.toItem(itemDto);
         item.setOwner(owner);
 
-        return itemMapper.toItemDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        itemNameIndex.refreshAfterCommit(savedItem);
+        requestMatcher.matchNewItem(savedItem);
+        return itemMapper.toItemDto(savedItem);
     }
 
     /**
@@ -55,26 +83,37 @@ public class ItemServiceImpl implements ItemService {
     @Override
     @Transactional(readOnly = true)
     public ItemDto getById(Long id, Long userId) {
+        ItemDto cached = itemDetailsCache.get(id, this::loadItemDetails);
+        if (!cached.getOwnerId().equals(userId)) {
+            return cached;
+        }
+
+        // Добавляем информацию о бронированиях только для владельца, поверх копии общей карточки
+        Item item = itemRepository.findWithBookingsById(id)
+                .orElseThrow(() -> new NotFoundException("Item not found with id: " + id));
+        ItemDto itemDto = cached.toBuilder().build();
+        setBookings(List.of(item), List.of(itemDto));
+        return itemDto;
+    }
+
+    /**
+     * Загружает карточку вещи для кэша: вещь и ее последние комментарии.
+     */
+    private ItemDto loadItemDetails(Long id) {
         Item item = itemRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Item not found with id: " + id));
 
         ItemDto itemDto = itemMapper.toItemDto(item);
 
-        // Добавляем информацию о бронированиях только для владельца
-        if (item.getOwner().getId().equals(userId)) {
-            itemDto.setLastBooking(findLastBooking(id));
-            itemDto.setNextBooking(findNextBooking(id));
-        }
-
-        // Добавляем комментарии для всех пользователей
-        List<CommentDto> comments = commentRepository.findByItemIdOrderByCreatedDesc(id)
+        // Добавляем последние комментарии для всех пользователей, остальные доступны постранично
+        List<CommentDto> comments = commentRepository.findPageByItemId(id, KeysetCursor.first().getTimestamp(),
+                        KeysetCursor.first().getId(), Limit.of(LATEST_COMMENTS_COUNT))
                 .stream()
                 .map(commentMapper::toCommentDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toUnmodifiableList());
         itemDto.setComments(comments);
 
         return itemDto;
-
     }
 
     /**
@@ -83,37 +122,59 @@ public class ItemServiceImpl implements ItemService {
     @Override
     @Transactional(readOnly = true)
     public List<ItemDto> getByOwnerId(Long ownerId) {
-        List<Item> items = itemRepository.findByOwnerId(ownerId);
+        // Последнее и следующее бронирование загружаются вместе с вещами
+        List<Item> items = itemRepository.findWithBookingsByOwnerId(ownerId);
         List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
 
-        // Загружаем комментарии для всех вещей одним запросом
+        // Загружаем последние комментарии всех вещей одним запросом
         Map<Long, List<CommentDto>> commentsByItemId = getCommentsByItemIds(itemIds);
 
-        // Загружаем все бронирования для всех вещей владельца одним запросом
-        Map<Long, List<Booking>> bookingsByItemId = bookingRepository
-                .findByItemIdInAndStatusOrderByStartAsc(itemIds, BookingStatus.APPROVED)
-                .stream()
-                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
-
-        LocalDateTime now = LocalDateTime.now();
-
-        return items.stream()
+        List<ItemDto> itemDtos = items.stream()
                 .map(item -> {
                     ItemDto itemDto = itemMapper.toItemDto(item);
 
-                    // Добавляем информацию о бронированиях для владельца
-                    List<Booking> itemBookings = bookingsByItemId.getOrDefault(item.getId(), Collections.emptyList());
-                    if (!itemBookings.isEmpty()) {
-                        itemDto.setLastBooking(findLastBookingFromList(itemBookings, now));
-                        itemDto.setNextBooking(findNextBookingFromList(itemBookings, now));
-                    }
-
                     // Добавляем комментарии
                     itemDto.setComments(commentsByItemId.getOrDefault(item.getId(), Collections.emptyList()));
 
                     return itemDto;
                 })
                 .collect(Collectors.toList());
+
+        // Добавляем информацию о бронированиях для владельца
+        setBookings(items, itemDtos);
+        return itemDtos;
+    }
+
+    /**
+     * Проставляет последнее и следующее бронирование по ссылкам вещей.
+     * Если следующее бронирование уже началось, а ссылки еще не переведены по расписанию,
+     * бронирования таких вещей вычисляются запросом.
+     */
+    private void setBookings(List<Item> items, List<ItemDto> itemDtos) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemDto.BookingInfoDto> lastByItemId = new HashMap<>();
+        Map<Long, ItemDto.BookingInfoDto> nextByItemId = new HashMap<>();
+        List<Long> staleItemIds = new ArrayList<>();
+
+        for (Item item : items) {
+            if (item.getNextBooking() != null && !item.getNextBooking().getStart().isAfter(now)) {
+                staleItemIds.add(item.getId());
+            } else {
+                lastByItemId.put(item.getId(), convertToBookingInfoDto(item.getLastBooking()));
+                nextByItemId.put(item.getId(), convertToBookingInfoDto(item.getNextBooking()));
+            }
+        }
+        if (!staleItemIds.isEmpty()) {
+            bookingRepository.findLastAndNextApprovedByItemIdIn(staleItemIds, now)
+                    .forEach(booking -> (booking.getStartDate().isAfter(now) ? nextByItemId : lastByItemId)
+                            .put(booking.getItemId(), convertToBookingInfoDto(booking)));
+        }
+
+        for (int i = 0; i < items.size(); i++) {
+            Long itemId = items.get(i).getId();
+            itemDtos.get(i).setLastBooking(lastByItemId.get(itemId));
+            itemDtos.get(i).setNextBooking(nextByItemId.get(itemId));
+        }
     }
 
     /**
@@ -141,7 +202,10 @@ public class ItemServiceImpl implements ItemService {
             existingItem.setAvailable(itemDto.getAvailable());
         }
 
-        return itemMapper.toItemDto(itemRepository.save(existingItem));
+        Item savedItem = itemRepository.save(existingItem);
+        itemNameIndex.refreshAfterCommit(savedItem);
+        itemDetailsCache.evictAfterCommit(id);
+        return itemMapper.toItemDto(savedItem);
     }
 
     /**
@@ -151,20 +215,60 @@ public class ItemServiceImpl implements ItemService {
     @Transactional
     public void delete(Long id) {
         itemRepository.deleteById(id);
+        availabilityCache.evictAfterCommit(id);
+        itemNameIndex.removeAfterCommit(id);
+        itemDetailsCache.evictAfterCommit(id);
     }
 
     /**
-     * Ищет доступные вещи по тексту.
+     * Ищет страницу доступных вещей по тексту, точно или с учетом опечаток.
      */
     @Override
     @Transactional(readOnly = true)
-    public List<ItemDto> search(String text) {
+    public ItemSearchPage search(String text, LocalDateTime from, LocalDateTime to, boolean fuzzy,
+                                 int offset, int size) {
+        if ((from == null) != (to == null)) {
+            throw new ValidationException("Both from and to must be specified to search free items");
+        }
+        if (from != null && !from.isBefore(to)) {
+            throw new ValidationException("Search period start must be before its end");
+        }
+        if (offset < 0 || size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+            throw new ValidationException("Offset must not be negative and size must be between 1 and " +
+                    MAX_SEARCH_PAGE_SIZE);
+        }
         if (text == null || text.isBlank()) {
-            return Collections.emptyList();
+            return new ItemSearchPage(Collections.emptyList(), 0);
         }
-        return itemRepository.search(text).stream()
+
+        List<ItemDto> items = itemRepository.search(text, from, to, fuzzy, offset, size).stream()
                 .map(itemMapper::toItemDto)
                 .collect(Collectors.toList());
+
+        // Неполная непустая (или первая) страница - последняя, и общее число известно без подсчета
+        long totalHits;
+        if (items.size() < size && (offset == 0 || !items.isEmpty())) {
+            totalHits = offset + items.size();
+        } else {
+            // Подсчет ограничен пределом, но найденных вещей не меньше, чем уже пройдено вместе с этой страницей
+            long counted = itemRepository.countHits(text, from, to, fuzzy, SEARCH_HITS_COUNT_CAP);
+            totalHits = items.isEmpty() ? counted : Math.max(counted, offset + items.size());
+        }
+        return new ItemSearchPage(items, totalHits);
+    }
+
+    /**
+     * Возвращает подсказки из префиксного индекса названий.
+     */
+    @Override
+    public List<ItemSuggestionDto> suggest(String prefix, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new ValidationException("Suggestions limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        if (prefix == null || prefix.isBlank()) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(itemNameIndex.suggest(prefix.strip(), limit));
     }
 
     /**
@@ -174,8 +278,7 @@ public class ItemServiceImpl implements ItemService {
     @Transactional
     public CommentDto addComment(Long itemId, CommentDto commentDto, Long userId) {
 
-        User author = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User not found with id: " + userId));
+        User author = userIdentityCache.getReference(userId);
 
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Item not found with id: " + itemId));
@@ -197,9 +300,64 @@ public class ItemServiceImpl implements ItemService {
         comment.setCreated(LocalDateTime.now());
 
         Comment savedComment = commentRepository.save(comment);
+        // Счетчик меняется через загруженную вещь, поэтому в кэше второго уровня обновляется только ее запись
+        item.setCommentCount(item.getCommentCount() + 1);
+        try {
+            itemRepository.flush();
+        } catch (OptimisticLockingFailureException e) {
+            throw new ConflictException("Item was commented concurrently, retry the request");
+        }
+        itemDetailsCache.evictAfterCommit(itemId);
         return commentMapper.toCommentDto(savedComment);
     }
 
+    /**
+     * Возвращает страницу комментариев к вещи по курсору (created, id).
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CommentPage getComments(Long itemId, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_COMMENTS_PAGE_SIZE) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_COMMENTS_PAGE_SIZE);
+        }
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Item not found with id: " + itemId);
+        }
+
+        // Запрашиваем на одну строку больше, чтобы понять, есть ли следующая страница
+        List<Comment> comments = commentRepository.findPageByItemId(
+                itemId, after.getTimestamp(), after.getId(), Limit.of(limit + 1));
+        boolean hasNext = comments.size() > limit;
+        List<Comment> page = hasNext ? comments.subList(0, limit) : comments;
+
+        List<CommentDto> commentDtos = page.stream()
+                .map(commentMapper::toCommentDto)
+                .collect(Collectors.toList());
+        String nextCursor = null;
+        if (hasNext) {
+            Comment last = page.get(limit - 1);
+            nextCursor = KeysetCursor.of(last.getCreated(), last.getId()).encode();
+        }
+
+        return new CommentPage(commentDtos, nextCursor);
+    }
+
+    /**
+     * Возвращает календарь занятости вещи, построенный по закэшированным периодам ее подтвержденных бронирований.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Availability window start must be before its end");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Item not found with id: " + itemId);
+        }
+        return availabilityCache.get(itemId, from, to, bookingRepository::findApprovedIntervalsByItemId);
+    }
+
     /**
      * Находит последнее завершенное бронирование для вещи.
      */
@@ -231,14 +389,19 @@ public class ItemServiceImpl implements ItemService {
     }
 
     /**
-     * Вспомогательный метод для получения комментариев по списку идентификаторов вещей.
+     * Вспомогательный метод для получения последних комментариев по списку идентификаторов вещей.
      */
     private Map<Long, List<CommentDto>> getCommentsByItemIds(List<Long> itemIds) {
         if (itemIds.isEmpty()) {
             return Collections.emptyMap();
         }
 
-        return commentRepository.findByItemIdInOrderByCreatedDesc(itemIds)
+        List<Long> commentIds = commentRepository.findLatestIdsByItemIdIn(itemIds, LATEST_COMMENTS_COUNT);
+        if (commentIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        return commentRepository.findWithAuthorByIdIn(commentIds)
                 .stream()
                 .collect(Collectors.groupingBy(
                         comment -> comment.getItem().getId(),
@@ -247,32 +410,12 @@ public class ItemServiceImpl implements ItemService {
     }
 
     /**
-     * Вспомогательный метод для поиска последнего бронирования из списка
-     */
-    private ItemDto.BookingInfoDto findLastBookingFromList(List<Booking> bookings, LocalDateTime now) {
-        return bookings.stream()
-                .filter(booking -> booking.getEnd().isBefore(now) ||
-                        (booking.getStart().isBefore(now) && booking.getEnd().isAfter(now)))
-                .max(Comparator.comparing(Booking::getEnd))
-                .map(this::convertToBookingInfoDto)
-                .orElse(null);
-    }
-
-    /**
-     * Вспомогательный метод для поиска следующего бронирования из списка
-     */
-    private ItemDto.BookingInfoDto findNextBookingFromList(List<Booking> bookings, LocalDateTime now) {
-        return bookings.stream()
-                .filter(booking -> booking.getStart().isAfter(now))
-                .min(Comparator.comparing(Booking::getStart))
-                .map(this::convertToBookingInfoDto)
-                .orElse(null);
-    }
-
-    /**
-     * Конвертирует Booking в BookingInfoDto
+     * Конвертирует Booking в BookingInfoDto, отсутствующее бронирование - в null
      */
     private ItemDto.BookingInfoDto convertToBookingInfoDto(Booking booking) {
+        if (booking == null) {
+            return null;
+        }
         return ItemDto.BookingInfoDto.builder()
                 .id(booking.getId())
                 .bookerId(booking.getBooker().getId())
@@ -281,6 +424,18 @@ public class ItemServiceImpl implements ItemService {
                 .build();
     }
 
+    /**
+     * Конвертирует проекцию бронирования в BookingInfoDto
+     */
+    private ItemDto.BookingInfoDto convertToBookingInfoDto(BookingPointerView booking) {
+        return ItemDto.BookingInfoDto.builder()
+                .id(booking.getId())
+                .bookerId(booking.getBookerId())
+                .start(formatDateTime(booking.getStartDate()))
+                .end(formatDateTime(booking.getEndDate()))
+                .build();
+    }
+
     /**
      * Форматирует LocalDateTime в строку ISO формата
      */
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Страница комментариев к вещи.
+ */
+@Getter
+@AllArgsConstructor
+public class CommentPage {
+    /**
+     * Комментарии текущей страницы.
+     */
+    private final List<CommentDto> comments;
+
+    /**
+     * Токен курсора следующей страницы или null, если страница последняя.
+     */
+    private final String nextCursor;
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO календаря занятости вещи в запрошенном окне.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ItemAvailabilityDto {
+    /**
+     * Идентификатор вещи.
+     */
+    @JsonProperty("itemId")
+    private Long itemId;
+
+    /**
+     * Начало запрошенного окна.
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    @JsonProperty("from")
+    private LocalDateTime from;
+
+    /**
+     * Окончание запрошенного окна.
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    @JsonProperty("to")
+    private LocalDateTime to;
+
+    /**
+     * Занятые периоды: подтвержденные бронирования, объединенные и обрезанные по границам окна.
+     */
+    @JsonProperty("busy")
+    private List<PeriodDto> busy;
+
+    /**
+     * Свободные периоды между занятыми.
+     * Граница свободного периода, совпадающая с границей занятого, сама занята.
+     */
+    @JsonProperty("free")
+    private List<PeriodDto> free;
+
+    /**
+     * DTO периода времени.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class PeriodDto {
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+        @JsonProperty("start")
+        private LocalDateTime start;
+
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+        @JsonProperty("end")
+        private LocalDateTime end;
+    }
+}
@@ -15,7 +15,7 @@ import java.util.List;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class ItemDto {
     /**
      * Уникальный идентификатор вещи.
@@ -70,11 +70,17 @@ public class ItemDto {
     private BookingInfoDto nextBooking;
 
     /**
-     * Список комментариев к вещи.
+     * Последние комментарии к вещи (от новых к старым), остальные доступны постранично.
      */
     @JsonProperty("comments")
     private List<CommentDto> comments;
 
+    /**
+     * Общее число комментариев к вещи.
+     */
+    @JsonProperty("commentCount")
+    private Long commentCount;
+
     /**
      * DTO для краткой информации о бронировании.
      */
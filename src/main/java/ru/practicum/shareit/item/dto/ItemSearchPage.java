@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Страница результатов поиска вещей.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemSearchPage {
+    /**
+     * Вещи текущей страницы, более релевантные первыми.
+     */
+    private final List<ItemDto> items;
+
+    /**
+     * Оценка общего числа найденных вещей: точное значение, если оно не превышает предел подсчета,
+     * иначе сам предел, но не меньше числа вещей до конца текущей непустой страницы.
+     */
+    private final long totalHits;
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+/**
+ * DTO подсказки при вводе поискового запроса.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ItemSuggestionDto {
+    /**
+     * Идентификатор вещи.
+     */
+    @JsonProperty("id")
+    private Long id;
+
+    /**
+     * Название вещи.
+     */
+    @JsonProperty("name")
+    private String name;
+}
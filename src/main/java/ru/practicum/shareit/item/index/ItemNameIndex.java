@@ -0,0 +1,154 @@
+package ru.practicum.shareit.item.index;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Префиксный индекс названий доступных вещей в памяти приложения.
+ * Для каждого слова названия хранится ключ "остаток названия с этого слова + идентификатор",
+ * поэтому подсказки находятся по началу любого слова одним просмотром диапазона упорядоченной карты.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemNameIndex {
+    // Разделитель ключа и идентификатора, меньше любого символа названия
+    private static final char ID_SEPARATOR = '\u0000';
+    // Число блокировок для обновления вещей
+    private static final int LOCK_COUNT = 64;
+    private static final Pattern WORD_START = Pattern.compile("(?<![\\p{L}\\p{N}])[\\p{L}\\p{N}]");
+
+    private final ItemRepository itemRepository;
+
+    // Подсказки по ключу, упорядоченные по алфавиту
+    private final NavigableMap<String, ItemSuggestionDto> suggestions = new ConcurrentSkipListMap<>();
+
+    // Ключи по идентификатору вещи, для удаления и переименования
+    private final Map<Long, List<String>> keysByItemId = new ConcurrentHashMap<>();
+
+    // Блокировки обновления вещей, вещь выбирает блокировку по идентификатору
+    private final Object[] locks = createLocks();
+
+    /**
+     * Загружает названия всех доступных вещей.
+     */
+    @PostConstruct
+    public void load() {
+        suggestions.clear();
+        keysByItemId.clear();
+        itemRepository.findAvailableSuggestions()
+                .forEach(suggestion -> keysByItemId.put(suggestion.getId(), put(suggestion)));
+    }
+
+    /**
+     * Возвращает вещи, у которых одно из слов названия начинается с префикса, по алфавиту.
+     *
+     * @param prefix начало слова (без учета регистра)
+     * @param limit  максимальное число подсказок
+     * @return подсказки без повторов
+     */
+    public Collection<ItemSuggestionDto> suggest(String prefix, int limit) {
+        String from = normalize(prefix);
+        Map<Long, ItemSuggestionDto> found = new LinkedHashMap<>();
+        for (Map.Entry<String, ItemSuggestionDto> entry : suggestions.tailMap(from, true).entrySet()) {
+            if (found.size() == limit || !entry.getKey().startsWith(from)) {
+                break;
+            }
+            found.putIfAbsent(entry.getValue().getId(), entry.getValue());
+        }
+        return found.values();
+    }
+
+    /**
+     * Приводит индекс в соответствие с вещью после фиксации текущей транзакции.
+     * Доступная вещь добавляется (или переименовывается), недоступная удаляется из индекса.
+     * Название и доступность запоминаются до фиксации, поэтому после нее база не читается.
+     * Если транзакции нет, изменения применяются сразу.
+     */
+    public void refreshAfterCommit(Item item) {
+        Long itemId = item.getId();
+        ItemSuggestionDto suggestion = Boolean.TRUE.equals(item.getAvailable())
+                ? new ItemSuggestionDto(itemId, item.getName())
+                : null;
+        afterCommit(() -> replace(itemId, suggestion));
+    }
+
+    /**
+     * Удаляет вещь из индекса после фиксации текущей транзакции.
+     */
+    public void removeAfterCommit(Long itemId) {
+        afterCommit(() -> replace(itemId, null));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Заменяет ключи вещи в индексе, при отсутствии подсказки удаляет их.
+     * Замена выполняется под блокировкой вещи, поэтому ключи одной замены не теряются из-за другой.
+     * Два параллельных изменения одного поля вещи не фиксируются оба: вещь обновляется с проверкой
+     * измененных полей, поэтому второе изменение завершается конфликтом.
+     */
+    private void replace(Long itemId, ItemSuggestionDto suggestion) {
+        synchronized (locks[Math.floorMod(itemId.hashCode(), locks.length)]) {
+            List<String> oldKeys = suggestion != null
+                    ? keysByItemId.put(itemId, put(suggestion))
+                    : keysByItemId.remove(itemId);
+            if (oldKeys != null) {
+                List<String> newKeys = keysByItemId.getOrDefault(itemId, List.of());
+                oldKeys.stream().filter(key -> !newKeys.contains(key)).forEach(suggestions::remove);
+            }
+        }
+    }
+
+    private List<String> put(ItemSuggestionDto suggestion) {
+        String name = normalize(suggestion.getName());
+        List<String> keys = new ArrayList<>();
+        Matcher matcher = WORD_START.matcher(name);
+        while (matcher.find()) {
+            String key = name.substring(matcher.start()) + ID_SEPARATOR + suggestion.getId();
+            suggestions.put(key, suggestion);
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    private static Object[] createLocks() {
+        Object[] locks = new Object[LOCK_COUNT];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+}
@@ -4,14 +4,26 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OptimisticLockType;
+import org.hibernate.annotations.OptimisticLocking;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 /**
  * Модель вещи (item) в системе шеринга, объект, который можно арендовать.
+ * Обновление записывает только измененные поля и проверяет их прежние значения,
+ * поэтому параллельные изменения разных полей не затирают друг друга, а одного поля - обнаруживаются.
+ * Без версии Hibernate не собирает запись кэша при таком обновлении, а сбрасывает запись этой вещи в регионе.
  */
 @Entity
 @Table(name = "items")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "items")
+@DynamicUpdate
+@OptimisticLocking(type = OptimisticLockType.DIRTY)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -63,4 +75,27 @@ public class Item {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "request_id")
     private ItemRequest request;
+
+    /**
+     * Последнее начавшееся подтвержденное бронирование вещи (с самой поздней датой окончания).
+     * Поддерживается при изменении бронирований, внешнего ключа нет, чтобы бронирования можно было удалять.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "last_booking_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Booking lastBooking;
+
+    /**
+     * Ближайшее будущее подтвержденное бронирование вещи.
+     * Поддерживается при изменении бронирований, внешнего ключа нет, чтобы бронирования можно было удалять.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "next_booking_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Booking nextBooking;
+
+    /**
+     * Число комментариев к вещи.
+     * Увеличивается при добавлении комментария через загруженную вещь.
+     */
+    @Column(name = "comment_count", nullable = false)
+    private long commentCount;
 }
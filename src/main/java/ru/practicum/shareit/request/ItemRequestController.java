@@ -2,8 +2,11 @@ package ru.practicum.shareit.request;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
 
 import java.util.List;
 
@@ -20,6 +23,9 @@ public class ItemRequestController {
     // Имя заголовка для передачи идентификатора пользователя
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
+    // Имя заголовка, в котором клиент ленты передает последний полученный идентификатор события
+    private static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
     /**
      * Создает новый запрос на вещь.
      *
@@ -60,6 +66,21 @@ public class ItemRequestController {
         return itemRequestService.getAllExceptUser(userId, from, size);
     }
 
+    /**
+     * Подписывает пользователя на ленту новых запросов других пользователей (server-sent events).
+     * Каждое событие содержит запрос, его идентификатор - позицию запроса в ленте. При переподключении
+     * клиент передает последний полученный идентификатор в Last-Event-ID и получает пропущенные запросы.
+     *
+     * @param userId      идентификатор пользователя из заголовка.
+     * @param lastEventId идентификатор последнего полученного события.
+     * @return поток событий.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(USER_ID_HEADER) Long userId,
+                             @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId) {
+        return itemRequestService.subscribe(userId, lastEventId);
+    }
+
     /**
      * Возвращает конкретный запрос по идентификатору.
      *
@@ -71,6 +92,22 @@ public class ItemRequestController {
         return itemRequestService.getById(requestId);
     }
 
+    /**
+     * Возвращает вещи, подобранные к запросу автоматически при их добавлении.
+     * Доступно только автору запроса.
+     *
+     * @param requestId идентификатор запроса.
+     * @param userId    идентификатор пользователя из заголовка.
+     * @param limit     максимальное число вещей.
+     * @return подходящие вещи, от более подходящих к менее подходящим.
+     */
+    @GetMapping("/{requestId}/matches")
+    public List<RequestMatchDto> getMatches(@PathVariable Long requestId,
+                                            @RequestHeader(USER_ID_HEADER) Long userId,
+                                            @RequestParam(defaultValue = "20") int limit) {
+        return itemRequestService.getMatches(requestId, userId, limit);
+    }
+
     /**
      * Обновляет данные запроса.
      *
@@ -9,6 +9,8 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
 
 /**
  * Маппер для преобразования между Entity и DTO объектов запроса вещи.
@@ -28,8 +30,9 @@ public class ItemRequestMapper {
         return new ItemRequestDto(
                 itemRequest.getId(),
                 itemRequest.getDescription(),
-                itemRequest.getRequestor(),
-                itemRequest.getCreated()
+                new ItemRequestDto.RequestorDto(itemRequest.getRequestor().getId(), itemRequest.getRequestor().getName()),
+                itemRequest.getCreated(),
+                Collections.emptyList()
         );
     }
 
@@ -48,7 +51,9 @@ public class ItemRequestMapper {
                 itemRequestDto.getId(),
                 itemRequestDto.getDescription(),
                 requestor,
-                itemRequestDto.getCreated() != null ? itemRequestDto.getCreated() : LocalDateTime.now()
+                // Дата создания всегда проставляется сервером, чтобы лента запросов шла в порядке создания.
+                // Точность - как у колонки в базе, чтобы позиция события совпадала с сохраненной
+                LocalDateTime.now().truncatedTo(ChronoUnit.MICROS)
         );
     }
 }
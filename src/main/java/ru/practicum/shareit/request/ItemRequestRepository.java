@@ -1,9 +1,15 @@
 package ru.practicum.shareit.request;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -17,8 +23,25 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
     List<ItemRequest> findByRequesterIdOrderByCreatedDesc(Long requesterId);
 
     /**
-     * Находит все запросы, созданные другими пользователями, отсортированные по дате создания (новые сначала).
+     * Находит запросы других пользователей, созданные строго после позиции (created, id), от старых к новым.
      */
-    @Query("SELECT ir FROM ItemRequest ir WHERE ir.requestor.id != :userId ORDER BY ir.created DESC")
-    List<ItemRequest> findByRequesterIdNotOrderByCreatedDesc(Long userId);
+    @Query("SELECT ir FROM ItemRequest ir JOIN FETCH ir.requestor WHERE ir.requestor.id <> :userId " +
+            "AND (ir.created > :cursorCreated OR (ir.created = :cursorCreated AND ir.id > :cursorId)) " +
+            "ORDER BY ir.created, ir.id")
+    List<ItemRequest> findCreatedAfter(@Param("userId") Long userId, @Param("cursorCreated") LocalDateTime cursorCreated,
+                                       @Param("cursorId") Long cursorId, Limit limit);
+
+    /**
+     * Находит открытые запросы: запросы, в ответ на которые еще не добавлено ни одной вещи.
+     */
+    @Query("SELECT ir FROM ItemRequest ir WHERE NOT EXISTS (SELECT i FROM Item i WHERE i.request = ir)")
+    List<ItemRequest> findOpen();
+
+    /**
+     * Находит страницу запросов, созданных другими пользователями, отсортированных от новых к старым.
+     * Выборка идет по индексу IX_REQUEST_CREATED (created DESC, id DESC) и останавливается на конце страницы.
+     * Прокрутка поддерживается только для производных запросов, поэтому метод без @Query.
+     */
+    @EntityGraph(attributePaths = "requestor")
+    Window<ItemRequest> findByRequestorIdNotOrderByCreatedDescIdDesc(Long userId, ScrollPosition position, Limit limit);
 }
@@ -1,7 +1,11 @@
 package ru.practicum.shareit.request;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.exception.AccessDeniedException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
 
 import java.util.List;
 
@@ -60,5 +64,28 @@ public interface ItemRequestService {
      */
     void delete(Long id);
 
+    /**
+     * Возвращает вещи, найденные для запроса при их добавлении, от более подходящих к менее подходящим.
+     *
+     * @param requestId идентификатор запроса.
+     * @param userId    идентификатор пользователя, запрашивающего совпадения.
+     * @param limit     максимальное число вещей.
+     * @return подходящие вещи.
+     * @throws NotFoundException     если запрос не найден.
+     * @throws AccessDeniedException если пользователь не автор запроса.
+     * @throws ValidationException   если limit некорректен.
+     */
+    List<RequestMatchDto> getMatches(Long requestId, Long userId, int limit);
+
+    /**
+     * Подписывает пользователя на ленту новых запросов других пользователей.
+     *
+     * @param userId      идентификатор подписчика.
+     * @param lastEventId идентификатор последнего полученного события при переподключении (может быть null).
+     * @return поток событий: запросы, созданные после lastEventId, а затем новые запросы по мере создания.
+     * @throws NotFoundException   если пользователь не найден.
+     * @throws ValidationException если lastEventId поврежден.
+     */
+    SseEmitter subscribe(Long userId, String lastEventId);
 
 }
@@ -3,14 +3,25 @@ package ru.practicum.shareit.request;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.common.KeysetCursor;
+import ru.practicum.shareit.exception.AccessDeniedException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
+import ru.practicum.shareit.request.index.RequestTokenIndex;
 import ru.practicum.shareit.request.model.ItemRequest;
-import ru.practicum.shareit.user.UserRepository;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.request.stream.ItemRequestBroadcaster;
+import ru.practicum.shareit.user.UserIdentityCache;
 
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -19,10 +30,19 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
+    // Максимальный размер страницы запросов других пользователей и списка подходящих вещей
+    private static final int MAX_PAGE_SIZE = 100;
+    // Сколько пропущенных запросов досылать в ленту за один запрос к базе
+    private static final int STREAM_REPLAY_BATCH_SIZE = 100;
+
     // Внедрение зависимости репозитория через конструктор
     private final ItemRequestRepository itemRequestRepository;
     private final ItemRequestMapper itemRequestMapper;
-    private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
+    private final ItemRepository itemRepository;
+    private final RequestMatchRepository requestMatchRepository;
+    private final RequestTokenIndex requestTokenIndex;
+    private final ItemRequestBroadcaster itemRequestBroadcaster;
 
     /**
      * Создает запрос, предварительно проверив существование пользователя
@@ -30,13 +50,15 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     @Transactional
     public ItemRequestDto create(ItemRequestDto itemRequestDto, Long userId) {
-        User requester = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User not found with id: " + userId));
+        userIdentityCache.checkExists(userId);
 
         ItemRequest itemRequest = itemRequestMapper.toItemRequest(itemRequestDto);
         ItemRequest savedRequest = itemRequestRepository.save(itemRequest);
+        requestTokenIndex.refreshAfterCommit(savedRequest);
 
-        return itemRequestMapper.toItemRequestDto(savedRequest);
+        ItemRequestDto savedRequestDto = itemRequestMapper.toItemRequestDto(savedRequest);
+        itemRequestBroadcaster.publishAfterCommit(savedRequestDto);
+        return savedRequestDto;
     }
 
 
@@ -48,7 +70,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     public ItemRequestDto getById(Long id) {
         ItemRequest itemRequest = itemRequestRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Item request not found with id: " + id));
-        return itemRequestMapper.toItemRequestDto(itemRequest);
+        return toItemRequestDtos(List.of(itemRequest)).get(0);
     }
 
     /**
@@ -57,12 +79,8 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     @Transactional(readOnly = true)
     public List<ItemRequestDto> getByUserId(Long userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new NotFoundException("User not found with id: " + userId);
-        }
-        return itemRequestRepository.findByRequesterIdOrderByCreatedDesc(userId).stream()
-                .map(itemRequestMapper::toItemRequestDto)
-                .collect(Collectors.toList());
+        userIdentityCache.checkExists(userId);
+        return toItemRequestDtos(itemRequestRepository.findByRequesterIdOrderByCreatedDesc(userId));
     }
 
     /**
@@ -71,13 +89,52 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     @Transactional(readOnly = true)
     public List<ItemRequestDto> getAllExceptUser(Long userId, int from, int size) {
-        if (!userRepository.existsById(userId)) {
-            throw new NotFoundException("User not found with id: " + userId);
+        userIdentityCache.checkExists(userId);
+        if (from < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("From must not be negative and size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        // Позиция прокрутки указывает на последний уже выданный элемент, страница начинается после нее
+        ScrollPosition position = from == 0 ? ScrollPosition.offset() : ScrollPosition.offset(from - 1);
+        List<ItemRequest> requests = itemRequestRepository.findByRequestorIdNotOrderByCreatedDescIdDesc(
+                userId, position, Limit.of(size)).getContent();
+        return toItemRequestDtos(requests);
+    }
+
+    /**
+     * Подписывает пользователя на ленту новых запросов, при переподключении досылая пропущенные.
+     */
+    @Override
+    public SseEmitter subscribe(Long userId, String lastEventId) {
+        userIdentityCache.checkExists(userId);
+        // Без Last-Event-ID досылать нечего
+        KeysetCursor after = lastEventId == null || lastEventId.isBlank() ? null : KeysetCursor.decode(lastEventId);
+        return itemRequestBroadcaster.subscribe(userId, after, cursor -> toItemRequestDtos(
+                itemRequestRepository.findCreatedAfter(userId, cursor.getTimestamp(), cursor.getId(),
+                        Limit.of(STREAM_REPLAY_BATCH_SIZE))));
+    }
+
+    /**
+     * Преобразует запросы в DTO и добавляет к ним вещи, добавленные в ответ, одним запросом.
+     */
+    private List<ItemRequestDto> toItemRequestDtos(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return Collections.emptyList();
         }
-        return itemRequestRepository.findByRequesterIdNotOrderByCreatedDesc(userId).stream()
-                .skip(from)
-                .limit(size)
-                .map(itemRequestMapper::toItemRequestDto)
+        List<Long> requestIds = requests.stream().map(ItemRequest::getId).collect(Collectors.toList());
+        Map<Long, List<ItemRequestDto.ItemAnswerDto>> itemsByRequestId = itemRepository.findByRequestIdIn(requestIds)
+                .stream()
+                .collect(Collectors.groupingBy(
+                        item -> item.getRequest().getId(),
+                        Collectors.mapping(item -> new ItemRequestDto.ItemAnswerDto(
+                                item.getId(), item.getName(), item.getOwner().getId()), Collectors.toList())
+                ));
+
+        return requests.stream()
+                .map(request -> {
+                    ItemRequestDto dto = itemRequestMapper.toItemRequestDto(request);
+                    dto.setItems(itemsByRequestId.getOrDefault(request.getId(), Collections.emptyList()));
+                    return dto;
+                })
                 .collect(Collectors.toList());
     }
 
@@ -85,6 +142,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
      * Обновляет запрос
      */
     @Override
+    @Transactional
     public ItemRequestDto update(Long id, ItemRequestDto itemRequestDto) {
         ItemRequest existingRequest = itemRequestRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Item request not found with id: " + id));
@@ -93,7 +151,12 @@ public class ItemRequestServiceImpl implements ItemRequestService {
             existingRequest.setDescription(itemRequestDto.getDescription());
         }
 
-        return itemRequestMapper.toItemRequestDto(itemRequestRepository.save(existingRequest));
+        ItemRequest savedRequest = itemRequestRepository.save(existingRequest);
+        // Запрос, на который уже ответили, в индексе не хранится
+        if (!itemRepository.existsByRequestId(id)) {
+            requestTokenIndex.refreshAfterCommit(savedRequest);
+        }
+        return toItemRequestDtos(List.of(savedRequest)).get(0);
     }
 
     /**
@@ -104,5 +167,34 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     public void delete(Long id) {
         itemRequestRepository.deleteById(id);
+        requestTokenIndex.removeAfterCommit(id);
+    }
+
+    /**
+     * Возвращает вещи, подобранные к запросу при их добавлении.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<RequestMatchDto> getMatches(Long requestId, Long userId, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        ItemRequest itemRequest = itemRequestRepository.findById(requestId)
+                .orElseThrow(() -> new NotFoundException("Item request not found with id: " + requestId));
+        if (!itemRequest.getRequestor().getId().equals(userId)) {
+            throw new AccessDeniedException("User is not the author of the request");
+        }
+
+        return requestMatchRepository.findByRequestId(requestId, Limit.of(limit)).stream()
+                .map(match -> RequestMatchDto.builder()
+                        .itemId(match.getItem().getId())
+                        .name(match.getItem().getName())
+                        .description(match.getItem().getDescription())
+                        .available(match.getItem().getAvailable())
+                        .ownerId(match.getItem().getOwner().getId())
+                        .score(match.getScore())
+                        .created(match.getCreated())
+                        .build())
+                .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.request;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.request.model.RequestMatch;
+
+import java.util.List;
+
+/**
+ * Интерфейс репозитория для работы с совпадениями запросов и вещей.
+ */
+public interface RequestMatchRepository extends JpaRepository<RequestMatch, Long> {
+    /**
+     * Находит лучшие совпадения запроса вместе с вещами, от более подходящих к менее подходящим.
+     */
+    @Query("SELECT m FROM RequestMatch m JOIN FETCH m.item WHERE m.request.id = :requestId ORDER BY m.score DESC, m.id")
+    List<RequestMatch> findByRequestId(@Param("requestId") Long requestId, Limit limit);
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.request;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.index.RequestTokenIndex;
+import ru.practicum.shareit.request.model.RequestMatch;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Сопоставляет новые вещи с открытыми запросами по индексу слов описаний запросов.
+ */
+@Component
+@RequiredArgsConstructor
+public class RequestMatcher {
+    // Минимальная доля слов описания запроса, которые должны встретиться в вещи
+    private static final double MIN_SCORE = 0.5;
+
+    private final RequestTokenIndex requestTokenIndex;
+    private final RequestMatchRepository requestMatchRepository;
+    private final ItemRequestRepository itemRequestRepository;
+
+    /**
+     * Сохраняет совпадения новой вещи с открытыми запросами в текущей транзакции.
+     * Запросы владельца вещи не учитываются. Вещь, добавленная в ответ на запрос, закрывает его.
+     */
+    public void matchNewItem(Item item) {
+        Long answeredRequestId = item.getRequest() != null ? item.getRequest().getId() : null;
+        if (answeredRequestId != null) {
+            requestTokenIndex.removeAfterCommit(answeredRequestId);
+        }
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<RequestMatch> matches = requestTokenIndex.score(item.getName() + " " + item.getDescription(),
+                        item.getOwner().getId())
+                .entrySet().stream()
+                .filter(entry -> entry.getValue() >= MIN_SCORE && !entry.getKey().equals(answeredRequestId))
+                .map(entry -> RequestMatch.builder()
+                        .request(itemRequestRepository.getReferenceById(entry.getKey()))
+                        .item(item)
+                        .score(entry.getValue())
+                        .created(now)
+                        .build())
+                .toList();
+        requestMatchRepository.saveAll(matches);
+    }
+}
@@ -4,9 +4,9 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PastOrPresent;
 import lombok.*;
-import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * DTO для передачи данных о запросе вещи.
@@ -32,7 +32,7 @@ public class ItemRequestDto {
      * Пользователь, создавший запрос.
      */
     @NotNull(message = "ItemRequest requestor не должен быть null")
-    private User requestor;
+    private RequestorDto requestor;
 
     /**
      * Дата и время создания запроса.
@@ -42,4 +42,38 @@ public class ItemRequestDto {
     @PastOrPresent(message = "Дата начала ItemRequest должна быть в прошлом или настоящем")
     private LocalDateTime created;
 
+    /**
+     * Вещи, добавленные в ответ на запрос.
+     */
+    private List<ItemAnswerDto> items;
+
+    /**
+     * DTO для краткой информации об авторе запроса.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class RequestorDto {
+        private Long id;
+
+        private String name;
+    }
+
+    /**
+     * DTO для краткой информации о вещи, добавленной в ответ на запрос.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ItemAnswerDto {
+        private Long id;
+
+        private String name;
+
+        private Long ownerId;
+    }
 }
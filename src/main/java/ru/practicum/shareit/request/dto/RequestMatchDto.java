@@ -0,0 +1,50 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO вещи, подходящей к запросу.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RequestMatchDto {
+    /**
+     * Идентификатор подходящей вещи.
+     */
+    private Long itemId;
+
+    /**
+     * Название вещи.
+     */
+    private String name;
+
+    /**
+     * Описание вещи.
+     */
+    private String description;
+
+    /**
+     * Доступна ли вещь для аренды сейчас.
+     */
+    private Boolean available;
+
+    /**
+     * Идентификатор владельца вещи.
+     */
+    private Long ownerId;
+
+    /**
+     * Доля слов описания запроса, найденных в названии и описании вещи, от 0 до 1.
+     */
+    private double score;
+
+    /**
+     * Дата и время, когда найдено совпадение.
+     */
+    private LocalDateTime created;
+}
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.request.index;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Обратный индекс слов описаний открытых запросов (запросов, на которые еще не ответили вещью).
+ * Слова приводятся к нижнему регистру и обрезаются до основы фиксированной длины,
+ * чтобы разные формы одного слова ("дрель", "дрели") совпадали.
+ */
+@Component
+@RequiredArgsConstructor
+public class RequestTokenIndex {
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+    // Более короткие слова (предлоги, союзы) не учитываются
+    private static final int MIN_WORD_LENGTH = 3;
+    // До какой длины обрезается слово
+    private static final int STEM_LENGTH = 4;
+
+    private final ItemRequestRepository itemRequestRepository;
+
+    // Запросы по основе слова
+    private final Map<String, Set<Long>> requestIdsByStem = new ConcurrentHashMap<>();
+
+    // Автор и основы слов по идентификатору запроса
+    private final Map<Long, IndexedRequest> requestsById = new ConcurrentHashMap<>();
+
+    /**
+     * Загружает все открытые запросы.
+     */
+    @PostConstruct
+    public void load() {
+        requestIdsByStem.clear();
+        requestsById.clear();
+        itemRequestRepository.findOpen().forEach(request ->
+                put(request.getId(), request.getRequestor().getId(), request.getDescription()));
+    }
+
+    /**
+     * Оценивает текст по открытым запросам.
+     * Оценка запроса - доля основ слов его описания, встречающихся в тексте.
+     *
+     * @param text          текст, например название и описание вещи
+     * @param excludedUserId пользователь, чьи запросы не учитываются (может быть null)
+     * @return оценки запросов, в которых совпала хотя бы одна основа
+     */
+    public Map<Long, Double> score(String text, Long excludedUserId) {
+        Map<Long, Integer> matchedByRequestId = new HashMap<>();
+        for (String stem : stems(text)) {
+            requestIdsByStem.getOrDefault(stem, Collections.emptySet())
+                    .forEach(requestId -> matchedByRequestId.merge(requestId, 1, Integer::sum));
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        matchedByRequestId.forEach((requestId, matched) -> {
+            IndexedRequest request = requestsById.get(requestId);
+            if (request != null && !Objects.equals(request.requesterId(), excludedUserId)) {
+                scores.put(requestId, (double) matched / request.stems().size());
+            }
+        });
+        return scores;
+    }
+
+    /**
+     * Добавляет запрос в индекс (или обновляет его описание) после фиксации текущей транзакции.
+     * Если транзакции нет, изменения применяются сразу.
+     */
+    public void refreshAfterCommit(ItemRequest request) {
+        Long requestId = request.getId();
+        Long requesterId = request.getRequestor().getId();
+        String description = request.getDescription();
+        afterCommit(() -> {
+            remove(requestId);
+            put(requestId, requesterId, description);
+        });
+    }
+
+    /**
+     * Удаляет запрос из индекса после фиксации текущей транзакции: запрос удален или на него уже ответили.
+     */
+    public void removeAfterCommit(Long requestId) {
+        afterCommit(() -> remove(requestId));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void put(Long requestId, Long requesterId, String description) {
+        Set<String> stems = stems(description);
+        if (stems.isEmpty()) {
+            return;
+        }
+        requestsById.put(requestId, new IndexedRequest(requesterId, stems));
+        stems.forEach(stem -> requestIdsByStem.computeIfAbsent(stem, s -> ConcurrentHashMap.newKeySet()).add(requestId));
+    }
+
+    private void remove(Long requestId) {
+        IndexedRequest removed = requestsById.remove(requestId);
+        if (removed != null) {
+            removed.stems().forEach(stem -> requestIdsByStem.computeIfPresent(stem, (s, requestIds) -> {
+                requestIds.remove(requestId);
+                return requestIds.isEmpty() ? null : requestIds;
+            }));
+        }
+    }
+
+    private static Set<String> stems(String text) {
+        Set<String> stems = new LinkedHashSet<>();
+        if (text == null) {
+            return stems;
+        }
+        Matcher matcher = WORD.matcher(text.toLowerCase(Locale.ROOT).replace('ё', 'е'));
+        while (matcher.find()) {
+            String word = matcher.group();
+            if (word.length() >= MIN_WORD_LENGTH) {
+                stems.add(word.substring(0, Math.min(word.length(), STEM_LENGTH)));
+            }
+        }
+        return stems;
+    }
+
+    private record IndexedRequest(Long requesterId, Set<String> stems) {
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.request.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+
+/**
+ * Совпадение открытого запроса с новой вещью, найденное при добавлении вещи.
+ */
+@Entity
+@Table(name = "request_matches")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RequestMatch {
+    /**
+     * Уникальный идентификатор совпадения.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Запрос, которому подходит вещь.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "request_id", nullable = false)
+    private ItemRequest request;
+
+    /**
+     * Подходящая вещь.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id", nullable = false)
+    private Item item;
+
+    /**
+     * Доля слов описания запроса, найденных в названии и описании вещи, от 0 до 1.
+     */
+    @Column(name = "score", nullable = false)
+    private double score;
+
+    /**
+     * Дата и время, когда найдено совпадение.
+     */
+    @Column(name = "created", nullable = false)
+    private LocalDateTime created;
+}
@@ -0,0 +1,173 @@
+package ru.practicum.shareit.request.stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.common.KeysetCursor;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Рассылает новые запросы вещей подписчикам ленты (server-sent events).
+ * У каждого подписчика своя ограниченная очередь и свой виртуальный поток, который пишет события в ответ,
+ * поэтому медленный клиент не задерживает ни создание запросов, ни других подписчиков.
+ * Подписчик, очередь которого переполнилась, отключается и может продолжить ленту с Last-Event-ID.
+ */
+@Component
+public class ItemRequestBroadcaster {
+    private static final String EVENT_NAME = "request";
+
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    public ItemRequestBroadcaster(@Value("${shareit.request.stream.buffer-size:256}") int bufferSize,
+                                  @Value("${shareit.request.stream.timeout:PT30M}") Duration timeout) {
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    /**
+     * Подписывает пользователя на новые запросы других пользователей.
+     * Если передана позиция, сначала досылаются запросы, созданные после нее:
+     * replay возвращает очередную порцию запросов строго после переданной позиции, пустая порция завершает досылку.
+     * Подписка регистрируется до досылки, поэтому запросы, созданные во время нее, не теряются.
+     *
+     * @param userId идентификатор подписчика
+     * @param after  позиция последнего полученного события (может быть null)
+     * @param replay загрузка запросов после позиции
+     * @return поток событий для ответа
+     */
+    public SseEmitter subscribe(Long userId, KeysetCursor after,
+                                Function<KeysetCursor, List<ItemRequestDto>> replay) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(userId, emitter, new ArrayBlockingQueue<>(bufferSize));
+        subscribers.add(subscriber);
+
+        Thread sender = Thread.ofVirtual()
+                .name("request-stream-" + userId)
+                .unstarted(() -> subscriber.run(after, replay));
+        subscriber.sender = sender;
+        emitter.onCompletion(() -> disconnect(subscriber));
+        emitter.onTimeout(() -> disconnect(subscriber));
+        emitter.onError(e -> disconnect(subscriber));
+        sender.start();
+        return emitter;
+    }
+
+    /**
+     * Рассылает запрос после фиксации текущей транзакции. Автор запроса его не получает.
+     * Если транзакции нет, запрос рассылается сразу.
+     */
+    public void publishAfterCommit(ItemRequestDto request) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(request);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(request);
+            }
+        });
+    }
+
+    private void publish(ItemRequestDto request) {
+        Long requesterId = request.getRequestor() != null ? request.getRequestor().getId() : null;
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.userId.equals(requesterId) && !subscriber.queue.offer(request)) {
+                // Клиент не успевает читать ленту
+                disconnect(subscriber);
+            }
+        }
+    }
+
+    private void disconnect(Subscriber subscriber) {
+        if (subscribers.remove(subscriber) && subscriber.sender != null) {
+            // Поток подписчика сам завершает ответ, чтобы рассылка не ждала записи в медленное соединение
+            subscriber.sender.interrupt();
+        }
+    }
+
+    private final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<ItemRequestDto> queue;
+        private volatile Thread sender;
+
+        // Идентификаторы досланных запросов: они же могут прийти и в очередь, если были созданы во время досылки.
+        // Хранятся, пока очередь не опустеет после досылки, живые события по порядку (created, id) не фильтруются,
+        // так как транзакции фиксируются не обязательно в порядке created
+        private final Set<Long> replayedIds = new HashSet<>();
+
+        private Subscriber(Long userId, SseEmitter emitter, BlockingQueue<ItemRequestDto> queue) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        private void run(KeysetCursor after, Function<KeysetCursor, List<ItemRequestDto>> replay) {
+            try {
+                if (after != null) {
+                    replay(after, replay);
+                }
+                while (subscribers.contains(this)) {
+                    ItemRequestDto request = queue.take();
+                    if (!replayedIds.remove(request.getId())) {
+                        send(request);
+                    }
+                    if (queue.isEmpty()) {
+                        replayedIds.clear();
+                    }
+                }
+                emitter.complete();
+            } catch (InterruptedException e) {
+                emitter.complete();
+            } catch (IOException | RuntimeException e) {
+                emitter.completeWithError(e);
+            } finally {
+                subscribers.remove(this);
+            }
+        }
+
+        private void replay(KeysetCursor after, Function<KeysetCursor, List<ItemRequestDto>> replay)
+                throws IOException {
+            KeysetCursor position = after;
+            List<ItemRequestDto> batch = replay.apply(position);
+            while (!batch.isEmpty()) {
+                for (ItemRequestDto request : batch) {
+                    send(request);
+                    replayedIds.add(request.getId());
+                }
+                position = toCursor(batch.get(batch.size() - 1));
+                batch = replay.apply(position);
+            }
+        }
+
+        /**
+         * Позиция запроса в ленте по ключу (created, id), она же идентификатор события.
+         */
+        private static KeysetCursor toCursor(ItemRequestDto request) {
+            return KeysetCursor.of(request.getCreated(), request.getId());
+        }
+
+        private void send(ItemRequestDto request) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(toCursor(request).encode())
+                    .name(EVENT_NAME)
+                    .data(request, MediaType.APPLICATION_JSON));
+        }
+    }
+}
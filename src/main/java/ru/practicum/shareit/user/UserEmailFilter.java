@@ -0,0 +1,138 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Фильтр Блума по адресам электронной почты пользователей.
+ * Отрицательный ответ фильтра означает, что адрес свободен, и проверка в базе пропускается;
+ * окончательно уникальность гарантирует ограничение UQ_USER_EMAIL.
+ * Адреса только добавляются, поэтому после удаления пользователей или смены адресов
+ * доля ложных срабатываний растет, пока фильтр не будет перестроен.
+ */
+@Component
+public class UserEmailFilter {
+    private static final String CHECKS_METRIC = "shareit.user.email-filter.checks";
+    private static final String FALSE_POSITIVE_RATE_METRIC = "shareit.user.email-filter.false-positive-rate";
+
+    private final UserRepository userRepository;
+    private final long expectedInsertions;
+    private final double falsePositiveProbability;
+
+    // Ответы фильтра: адреса нет / адрес есть в базе / ложное срабатывание
+    private final Counter negativeChecks;
+    private final Counter truePositiveChecks;
+    private final Counter falsePositiveChecks;
+
+    private volatile BloomFilter filter;
+
+    // Фильтр, который строится прямо сейчас: новые адреса добавляются и в него, чтобы не потеряться при замене
+    private volatile BloomFilter building;
+
+    public UserEmailFilter(UserRepository userRepository,
+                           @Value("${shareit.user.email-filter.expected-insertions:1000000}") long expectedInsertions,
+                           @Value("${shareit.user.email-filter.false-positive-probability:0.01}")
+                           double falsePositiveProbability,
+                           MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.filter = new BloomFilter(expectedInsertions, falsePositiveProbability);
+        this.negativeChecks = checksCounter(meterRegistry, "negative");
+        this.truePositiveChecks = checksCounter(meterRegistry, "true_positive");
+        this.falsePositiveChecks = checksCounter(meterRegistry, "false_positive");
+        // Поставщик захватывает только счетчики, чтобы не передавать наружу недостроенный объект
+        Counter negatives = negativeChecks;
+        Counter falsePositives = falsePositiveChecks;
+        Gauge.builder(FALSE_POSITIVE_RATE_METRIC, () -> falsePositiveRate(negatives, falsePositives))
+                .description("Доля ложных срабатываний среди проверок свободных адресов")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Строит фильтр по адресам из базы.
+     */
+    @PostConstruct
+    public void load() {
+        rebuild();
+    }
+
+    /**
+     * Проверяет, занят ли адрес. В базу обращается, только если адрес может быть в фильтре.
+     *
+     * @param email  адрес электронной почты
+     * @param lookup проверка адреса в базе
+     */
+    public boolean exists(String email, Predicate<String> lookup) {
+        if (!filter.mightContain(email)) {
+            negativeChecks.increment();
+            return false;
+        }
+        boolean exists = lookup.test(email);
+        (exists ? truePositiveChecks : falsePositiveChecks).increment();
+        return exists;
+    }
+
+    /**
+     * Добавляет адрес в фильтр. Вызывается до фиксации транзакции:
+     * если она откатится, в фильтре останется лишний адрес, что дает лишь ложное срабатывание.
+     */
+    public void put(String email) {
+        filter.put(email);
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(email);
+        }
+    }
+
+    /**
+     * Перестраивает фильтр по текущим адресам, убирая удаленные и старые адреса.
+     * Размер фильтра рассчитывается не меньше чем на число пользователей в базе.
+     *
+     * @return число адресов в новом фильтре
+     */
+    public synchronized long rebuild() {
+        long count = userRepository.count();
+        BloomFilter next = new BloomFilter(Math.max(expectedInsertions, count), falsePositiveProbability);
+        building = next;
+        List<String> emails = userRepository.findAllEmails();
+        emails.forEach(next::put);
+        filter = next;
+        building = null;
+        return emails.size();
+    }
+
+    /**
+     * Размер битового массива текущего фильтра.
+     */
+    public long bitSize() {
+        return filter.bitSize();
+    }
+
+    /**
+     * Доля ложных срабатываний: ложные срабатывания среди всех проверок адресов, которых нет в базе.
+     */
+    public double falsePositiveRate() {
+        return falsePositiveRate(negativeChecks, falsePositiveChecks);
+    }
+
+    private static double falsePositiveRate(Counter negativeChecks, Counter falsePositiveChecks) {
+        double falsePositives = falsePositiveChecks.count();
+        double checks = falsePositives + negativeChecks.count();
+        return checks == 0 ? 0 : falsePositives / checks;
+    }
+
+    private static Counter checksCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(CHECKS_METRIC)
+                .description("Проверки занятости адресов через фильтр Блума")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
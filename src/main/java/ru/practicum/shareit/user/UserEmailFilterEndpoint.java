@@ -0,0 +1,40 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Служебная точка actuator для фильтра занятых адресов электронной почты.
+ * GET /actuator/emailfilter возвращает состояние фильтра, POST /actuator/emailfilter перестраивает его.
+ */
+@Component
+@Endpoint(id = "emailfilter")
+@RequiredArgsConstructor
+public class UserEmailFilterEndpoint {
+    private final UserEmailFilter userEmailFilter;
+
+    /**
+     * Возвращает размер фильтра и наблюдаемую долю ложных срабатываний.
+     */
+    @ReadOperation
+    public Map<String, Object> info() {
+        return Map.of(
+                "bitSize", userEmailFilter.bitSize(),
+                "falsePositiveRate", userEmailFilter.falsePositiveRate());
+    }
+
+    /**
+     * Перестраивает фильтр по текущим адресам пользователей.
+     */
+    @WriteOperation
+    public Map<String, Object> rebuild() {
+        return Map.of(
+                "emails", userEmailFilter.rebuild(),
+                "bitSize", userEmailFilter.bitSize());
+    }
+}
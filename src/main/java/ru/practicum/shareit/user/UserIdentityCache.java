@@ -0,0 +1,89 @@
+package ru.practicum.shareit.user;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.dto.UserIdentityDto;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Кэш известных пользователей: идентификатор и имя.
+ * Заполняется при первом обращении и отвечает на проверки существования пользователя без запроса к базе.
+ * Отсутствующие пользователи не кэшируются, поэтому новый пользователь виден сразу после создания.
+ * Статистика кэша публикуется в метриках cache.* с тегом cache=userIdentity.
+ */
+@Component
+public class UserIdentityCache {
+    private static final String CACHE_NAME = "userIdentity";
+
+    private final Cache<Long, UserIdentityDto> cache;
+    private final UserRepository userRepository;
+
+    public UserIdentityCache(@Value("${shareit.user.identity-cache.maximum-size:100000}") long maximumSize,
+                             @Value("${shareit.user.identity-cache.expire-after-write:PT10M}") Duration expireAfterWrite,
+                             UserRepository userRepository,
+                             MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.userRepository = userRepository;
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Находит пользователя в кэше или загружает его из базы.
+     */
+    public Optional<UserIdentityDto> find(Long userId) {
+        return Optional.ofNullable(cache.get(userId, this::load));
+    }
+
+    /**
+     * Проверяет существование пользователя, выбрасывает исключение если не найден.
+     */
+    public void checkExists(Long userId) {
+        if (find(userId).isEmpty()) {
+            throw new NotFoundException("User not found with id: " + userId);
+        }
+    }
+
+    /**
+     * Возвращает ссылку на существующего пользователя без загрузки его строки,
+     * чтобы проставить его в связь сохраняемой сущности.
+     */
+    public User getReference(Long userId) {
+        checkExists(userId);
+        return userRepository.getReferenceById(userId);
+    }
+
+    /**
+     * Сбрасывает пользователя после фиксации текущей транзакции,
+     * чтобы до фиксации кэш не заполнился еще не измененными данными.
+     */
+    public void evictAfterCommit(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.invalidate(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.invalidate(userId);
+            }
+        });
+    }
+
+    private UserIdentityDto load(Long userId) {
+        return userRepository.findIdentityById(userId).orElse(null);
+    }
+}
@@ -1,6 +1,12 @@
 package ru.practicum.shareit.user;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.user.dto.UserIdentityDto;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
@@ -15,7 +21,25 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String email);
 
-    boolean existsById(Long id);
+    /**
+     * Проверяет существование пользователя.
+     * Результат хранится в кэше запросов и сбрасывается при любом изменении таблицы пользователей.
+     */
+    @Query("SELECT COUNT(u) > 0 FROM User u WHERE u.id = :id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    boolean existsById(@Param("id") Long id);
+
+    /**
+     * Находит идентификатор и имя пользователя без загрузки сущности.
+     */
+    @Query("SELECT new ru.practicum.shareit.user.dto.UserIdentityDto(u.id, u.name) FROM User u WHERE u.id = :id")
+    Optional<UserIdentityDto> findIdentityById(@Param("id") Long id);
+
+    /**
+     * Возвращает адреса электронной почты всех пользователей для фильтра занятых адресов.
+     */
+    @Query("SELECT u.email FROM User u")
+    List<String> findAllEmails();
 
     List<User> findByName(String name);
 }
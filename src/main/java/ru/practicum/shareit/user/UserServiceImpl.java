@@ -2,6 +2,8 @@ package ru.practicum.shareit.user;
 
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -9,6 +11,7 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
 /**
@@ -19,8 +22,13 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Transactional
 public class UserServiceImpl implements UserService {
+    // Ограничение уникальности адреса; H2 сообщает его имя вместе с именем индекса, поэтому ищется вхождение
+    private static final String EMAIL_CONSTRAINT = "uq_user_email";
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final UserIdentityCache userIdentityCache;
+    private final UserEmailFilter userEmailFilter;
 
     /**
      * Создает пользователя, преобразуя DTO в Entity и обратно.
@@ -28,13 +36,14 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public UserDto create(UserDto userDto) {
-        if (userRepository.existsByEmail(userDto.getEmail())) {
+        if (userEmailFilter.exists(userDto.getEmail(), userRepository::existsByEmail)) {
             throw new ConflictException("Email already exists: " + userDto.getEmail());
         }
-        ;
 
         User user = userMapper.toUser(userDto);
-        return userMapper.toUserDto(userRepository.save(user));
+        User savedUser = saveAndFlush(user);
+        userEmailFilter.put(savedUser.getEmail());
+        return userMapper.toUserDto(savedUser);
     }
 
     /**
@@ -69,7 +78,7 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new NotFoundException("User not found with id: " + id));
 
         if (userDto.getEmail() != null && !userDto.getEmail().equals(existingUser.getEmail())) {
-            if (userRepository.existsByEmail(userDto.getEmail())) {
+            if (userEmailFilter.exists(userDto.getEmail(), userRepository::existsByEmail)) {
                 throw new ConflictException("Email already exists: " + userDto.getEmail());
             }
 
@@ -82,7 +91,10 @@ public class UserServiceImpl implements UserService {
             existingUser.setEmail(userDto.getEmail());
         }
 
-        return userMapper.toUserDto(userRepository.save(existingUser));
+        User savedUser = saveAndFlush(existingUser);
+        userEmailFilter.put(savedUser.getEmail());
+        userIdentityCache.evictAfterCommit(id);
+        return userMapper.toUserDto(savedUser);
     }
 
     /**
@@ -92,6 +104,28 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public void delete(Long id) {
         userRepository.deleteById(id);
+        userIdentityCache.evictAfterCommit(id);
+    }
+
+    /**
+     * Сохраняет пользователя сразу в базу, чтобы нарушение уникальности адреса
+     * (при отрицательном ответе фильтра адрес в базе не проверяется) превратилось в конфликт.
+     * Нарушения других ограничений пробрасываются как есть.
+     */
+    private User saveAndFlush(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailConstraintViolation(e)) {
+                throw new ConflictException("Email already exists: " + user.getEmail());
+            }
+            throw e;
+        }
     }
 
+    private static boolean isEmailConstraintViolation(DataIntegrityViolationException e) {
+        return e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(EMAIL_CONSTRAINT);
+    }
 }
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Облегченная запись о пользователе для кэша известных пользователей.
+ * Неизменяема, так как один экземпляр используется всеми запросами.
+ */
+@Getter
+@AllArgsConstructor
+public class UserIdentityDto {
+    /**
+     * Идентификатор пользователя.
+     */
+    private final Long id;
+
+    /**
+     * Имя пользователя.
+     */
+    private final String name;
+}
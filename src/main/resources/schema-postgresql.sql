@@ -0,0 +1,32 @@
+-- Дополнения схемы, доступные только в PostgreSQL.
+-- Выполняется после schema.sql (см. spring.sql.init.schema-locations).
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Период бронирования с включенными границами, как в BookingRepository.existOverlappingBookings
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS period TSRANGE
+    GENERATED ALWAYS AS (tsrange(start_date, end_date, '[]')) STORED;
+
+-- Подтвержденные бронирования одной вещи не могут пересекаться.
+-- У ADD CONSTRAINT нет IF NOT EXISTS, поэтому ограничение создается блоком, только если его еще нет.
+-- Тело блока - строка в одинарных кавычках, а не $$: скрипт делится на команды по ';' вне кавычек.
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''ex_booking_approved_period'') THEN
+        ALTER TABLE bookings ADD CONSTRAINT EX_BOOKING_APPROVED_PERIOD
+            EXCLUDE USING gist (item_id WITH =, period WITH &&) WHERE (status = ''APPROVED'');
+    END IF;
+END
+';
+
+-- Полнотекстовый поиск вещей: совпадения в названии (вес A) важнее совпадений в описании (вес B).
+-- Словарь simple не приводит слова к основе, поэтому поиск по префиксу слова ведет себя одинаково для любого языка.
+ALTER TABLE items ADD COLUMN IF NOT EXISTS search_vector TSVECTOR
+    GENERATED ALWAYS AS (setweight(to_tsvector('simple', coalesce(name, '')), 'A') ||
+                         setweight(to_tsvector('simple', coalesce(description, '')), 'B')) STORED;
+CREATE INDEX IF NOT EXISTS IX_ITEM_SEARCH_VECTOR ON items USING gin (search_vector);
+
+-- Нечеткий поиск вещей с учетом опечаток
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS IX_ITEM_NAME_TRGM ON items USING gin (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS IX_ITEM_DESCRIPTION_TRGM ON items USING gin (description gin_trgm_ops);
@@ -15,6 +15,9 @@ CREATE TABLE IF NOT EXISTS items (
     is_available BOOLEAN NOT NULL,
     owner_id BIGINT NOT NULL,
     request_id BIGINT,
+    last_booking_id BIGINT,
+    next_booking_id BIGINT,
+    comment_count BIGINT NOT NULL,
     CONSTRAINT pk_item PRIMARY KEY (id),
     CONSTRAINT FK_ITEM_ON_OWNER FOREIGN KEY (owner_id) REFERENCES users(id)
 );
@@ -32,6 +35,17 @@ CREATE TABLE IF NOT EXISTS bookings (
     CONSTRAINT FK_BOOKING_ON_BOOKER FOREIGN KEY (booker_id) REFERENCES users(id)
 );
 
+-- Индексы под постраничную выдачу бронирований по ключу (start_date, id)
+CREATE INDEX IF NOT EXISTS IX_BOOKING_BOOKER_START ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS IX_BOOKING_ITEM_START ON bookings (item_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS IX_ITEM_OWNER ON items (owner_id);
+-- Индекс под загрузку вещей, добавленных в ответ на запросы
+CREATE INDEX IF NOT EXISTS IX_ITEM_REQUEST ON items (request_id);
+
+-- Ссылки на последнее и следующее бронирование вещи (для таблиц, созданных до их появления)
+ALTER TABLE items ADD COLUMN IF NOT EXISTS last_booking_id BIGINT;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS next_booking_id BIGINT;
+
 CREATE TABLE IF NOT EXISTS comments (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     text VARCHAR(1000) NOT NULL,
@@ -43,6 +57,14 @@ CREATE TABLE IF NOT EXISTS comments (
     CONSTRAINT FK_COMMENT_ON_AUTHOR FOREIGN KEY (author_id) REFERENCES users(id)
 );
 
+-- Индекс под постраничную выдачу комментариев вещи по ключу (created, id)
+CREATE INDEX IF NOT EXISTS IX_COMMENT_ITEM_CREATED ON comments (item_id, created DESC, id DESC);
+
+-- Число комментариев вещи: для таблиц, созданных до его появления, один раз считается по комментариям
+ALTER TABLE items ADD COLUMN IF NOT EXISTS comment_count BIGINT;
+UPDATE items SET comment_count = (SELECT COUNT(*) FROM comments c WHERE c.item_id = items.id) WHERE comment_count IS NULL;
+ALTER TABLE items ALTER COLUMN comment_count SET NOT NULL;
+
 
 
 CREATE TABLE IF NOT EXISTS requests (
@@ -52,4 +74,20 @@ CREATE TABLE IF NOT EXISTS requests (
     created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     CONSTRAINT pk_request PRIMARY KEY (id),
     CONSTRAINT FK_REQUEST_ON_REQUESTER FOREIGN KEY (requester_id) REFERENCES users(id)
+);
+
+-- Индекс под постраничную выдачу запросов от новых к старым
+CREATE INDEX IF NOT EXISTS IX_REQUEST_CREATED ON requests (created DESC, id DESC);
+
+-- Вещи, подобранные к открытым запросам при добавлении вещи
+CREATE TABLE IF NOT EXISTS request_matches (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    request_id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    score DOUBLE PRECISION NOT NULL,
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_request_match PRIMARY KEY (id),
+    CONSTRAINT UQ_REQUEST_MATCH UNIQUE (request_id, item_id),
+    CONSTRAINT FK_REQUEST_MATCH_ON_REQUEST FOREIGN KEY (request_id) REFERENCES requests(id) ON DELETE CASCADE,
+    CONSTRAINT FK_REQUEST_MATCH_ON_ITEM FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE
 );
\ No newline at end of file
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingPage;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Проверяет, что списки бронирований читаются фиксированным числом SQL-запросов
+ * независимо от количества бронирований и без загрузки сущностей.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BookingListQueryCountTest {
+    // Проверка существования пользователя и запрос страницы
+    private static final long EXPECTED_STATEMENTS = 2;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = createUser("owner");
+        booker = createUser("booker");
+
+        // Несколько вещей и бронирований в разных статусах, чтобы N+1 был заметен
+        for (int i = 0; i < 5; i++) {
+            Item item = itemRepository.save(Item.builder()
+                    .name("Дрель " + i)
+                    .description("Описание " + i)
+                    .available(true)
+                    .owner(owner)
+                    .build());
+            for (BookingStatus status : BookingStatus.values()) {
+                LocalDateTime start = LocalDateTime.now().plusDays(1 + i).plusHours(status.ordinal());
+                bookingRepository.save(Booking.builder()
+                        .item(item)
+                        .booker(booker)
+                        .start(start)
+                        .end(start.plusMinutes(30))
+                        .status(status)
+                        .build());
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED", "APPROVED"})
+    void bookerListUsesConstantNumberOfStatements(String state) {
+        statistics.clear();
+
+        BookingPage page = bookingService.getByBookerId(booker.getId(), state, null, 100);
+
+        assertEquals(EXPECTED_STATEMENTS, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(expectedSize(state), page.getBookings().size());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED", "APPROVED"})
+    void ownerListUsesConstantNumberOfStatements(String state) {
+        statistics.clear();
+
+        BookingPage page = bookingService.getByOwnerId(owner.getId(), state, null, 100);
+
+        assertEquals(EXPECTED_STATEMENTS, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(expectedSize(state), page.getBookings().size());
+    }
+
+    private int expectedSize(String state) {
+        return switch (state) {
+            case "ALL", "FUTURE" -> 5 * BookingStatus.values().length;
+            case "CURRENT", "PAST" -> 0;
+            default -> 5;
+        };
+    }
+
+    private User createUser(String name) {
+        return userRepository.save(User.builder()
+                .name(name)
+                .email(name + "-" + UUID.randomUUID() + "@mail.ru")
+                .build());
+    }
+}
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Проверяет, что записи бронирований и комментариев не сбрасывают регион кэша второго уровня "items":
+ * пакетное обновление статусов затрагивает только таблицу bookings, а ссылки на бронирования
+ * и счетчик комментариев меняются через загруженные вещи и сбрасывают только их записи.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ItemCacheRegionTest {
+    private static final String ITEMS_REGION = "items";
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User owner;
+    private User booker;
+    private Item first;
+    private Item second;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = createUser("owner");
+        booker = createUser("booker");
+        first = createItem("Дрель");
+        second = createItem("Отвертка");
+    }
+
+    @Test
+    void ownerDecisionsKeepItemsCached() {
+        Booking booking = createBooking(first, LocalDateTime.now().plusDays(1));
+        warmUp();
+
+        bookingService.decide(List.of(new BookingDecisionDto(booking.getId(), true)), owner.getId());
+
+        statistics.clear();
+        itemRepository.findById(second.getId()).orElseThrow();
+        assertItemsRegion(1, 0);
+
+        // Ссылка на бронирование изменилась, поэтому запись вещи сброшена и читается из базы один раз
+        Item item = itemRepository.findById(first.getId()).orElseThrow();
+        itemRepository.findById(first.getId()).orElseThrow();
+        assertItemsRegion(2, 1);
+        assertEquals(booking.getId(), item.getNextBooking().getId());
+    }
+
+    @Test
+    void commentKeepsItemsCached() {
+        Booking booking = createBooking(first, LocalDateTime.now().plusDays(1));
+        jdbcTemplate.update("UPDATE bookings SET status = 'APPROVED', start_date = ?, end_date = ? WHERE id = ?",
+                LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1), booking.getId());
+        warmUp();
+
+        itemService.addComment(first.getId(), CommentDto.builder().text("Отличная дрель").build(), booker.getId());
+
+        statistics.clear();
+        itemRepository.findById(second.getId()).orElseThrow();
+        assertItemsRegion(1, 0);
+
+        // Счетчик комментариев изменился, поэтому запись вещи сброшена и читается из базы один раз
+        Item item = itemRepository.findById(first.getId()).orElseThrow();
+        itemRepository.findById(first.getId()).orElseThrow();
+        assertItemsRegion(2, 1);
+        assertEquals(1, item.getCommentCount());
+    }
+
+    /**
+     * Загружает обе вещи, чтобы они оказались в регионе.
+     */
+    private void warmUp() {
+        itemRepository.findById(first.getId()).orElseThrow();
+        itemRepository.findById(second.getId()).orElseThrow();
+    }
+
+    private void assertItemsRegion(long hits, long misses) {
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(ITEMS_REGION);
+        assertEquals(hits, region.getHitCount());
+        assertEquals(misses, region.getMissCount());
+    }
+
+    private Booking createBooking(Item item, LocalDateTime start) {
+        return bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(start.plusDays(1))
+                .status(BookingStatus.WAITING)
+                .build());
+    }
+
+    private Item createItem(String name) {
+        return itemRepository.save(Item.builder()
+                .name(name + " " + UUID.randomUUID())
+                .description("Описание")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    private User createUser(String name) {
+        return userRepository.save(User.builder()
+                .name(name)
+                .email(name + "-" + UUID.randomUUID() + "@mail.ru")
+                .build());
+    }
+}
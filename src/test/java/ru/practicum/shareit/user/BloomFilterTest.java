@@ -0,0 +1,53 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверяет фильтр Блума занятых адресов: добавленные адреса всегда находятся,
+ * а доля ложных срабатываний близка к заданной при расчетном числе адресов.
+ */
+class BloomFilterTest {
+    private static final int EXPECTED_INSERTIONS = 10_000;
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+    // Сколько отсутствующих адресов проверяется для оценки доли ложных срабатываний
+    private static final int ABSENT_CHECKS = 100_000;
+
+    @Test
+    void addedEmailsAreAlwaysFound() {
+        BloomFilter filter = filledFilter();
+
+        for (int i = 0; i < EXPECTED_INSERTIONS; i++) {
+            assertTrue(filter.mightContain(email("user", i)), "Добавленный адрес не найден: " + email("user", i));
+        }
+    }
+
+    @Test
+    void falsePositiveRateIsCloseToConfiguredProbability() {
+        BloomFilter filter = filledFilter();
+
+        int falsePositives = 0;
+        for (int i = 0; i < ABSENT_CHECKS; i++) {
+            if (filter.mightContain(email("absent", i))) {
+                falsePositives++;
+            }
+        }
+
+        double rate = (double) falsePositives / ABSENT_CHECKS;
+        assertTrue(rate > FALSE_POSITIVE_PROBABILITY / 2 && rate < FALSE_POSITIVE_PROBABILITY * 1.5,
+                "Доля ложных срабатываний " + rate + " далека от " + FALSE_POSITIVE_PROBABILITY);
+    }
+
+    private BloomFilter filledFilter() {
+        BloomFilter filter = new BloomFilter(EXPECTED_INSERTIONS, FALSE_POSITIVE_PROBABILITY);
+        for (int i = 0; i < EXPECTED_INSERTIONS; i++) {
+            filter.put(email("user", i));
+        }
+        return filter;
+    }
+
+    private static String email(String prefix, int i) {
+        return prefix + i + "@mail.ru";
+    }
+}